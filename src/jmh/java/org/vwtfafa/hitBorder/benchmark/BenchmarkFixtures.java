@@ -0,0 +1,146 @@
+package org.vwtfafa.hitBorder.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.mockito.Mockito;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Shared setup for the benchmarks: compiled settings from inline YAML, Mockito stubs for the
+ * server API and a scheduler that runs every task inline.
+ * <p>
+ * Stubs are created with {@code stubOnly()}, so they do not record invocations and the
+ * measured allocation is not inflated by Mockito's verification bookkeeping. Stub calls still
+ * cost more than the real server's getters, so the numbers are a relative baseline for
+ * HitBorder's own code rather than absolute in-game timings.
+ */
+final class BenchmarkFixtures {
+    static final Logger LOGGER = Logger.getLogger("HitBorder-Benchmark");
+    static final int CURRENT_TICK = 100_000;
+
+    // Common base for all benchmark configurations: no sound (needs the registry), no debug output
+    private static final String BASE_CONFIG = String.join("\n",
+            "world: world",
+            "game:",
+            "  hardcore: false",
+            "  notification-sound:",
+            "    enabled: false",
+            "messages:",
+            "  prefix: '&7[&6HitBorder&7] '",
+            "  border-grow: '&eThe world border is growing to &6%size% blocks&e!'",
+            "  hardcore-death: '&c%player% hit the border at &6%size% blocks&c!'",
+            "  usage-grow: '&cUsage: /%s grow <amount> [world]'",
+            "  spawn-protection: '&cYou cannot build in the spawn area!'",
+            "");
+
+    private static Server server;
+
+    static {
+        LOGGER.setLevel(Level.WARNING);
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param overrides Extra YAML appended to the base configuration
+     * @return Settings compiled exactly as the plugin does on load
+     */
+    static BorderSettings settings(String overrides) {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(BASE_CONFIG + overrides);
+        } catch (InvalidConfigurationException e) {
+            throw new IllegalArgumentException("Invalid benchmark config", e);
+        }
+        return BorderSettings.load(config, LOGGER);
+    }
+
+    static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    /**
+     * Installs a stub server as {@link Bukkit#getServer()} once per JVM, so static calls such as
+     * {@link Bukkit#getCurrentTick()} work. The field is set directly because
+     * {@code Bukkit.setServer} looks up build information that only a real server provides.
+     */
+    static synchronized Server server() {
+        if (server == null) {
+            Server stub = stub(Server.class);
+            when(stub.getLogger()).thenReturn(LOGGER);
+            when(stub.getCurrentTick()).thenReturn(CURRENT_TICK);
+            when(stub.isPrimaryThread()).thenReturn(true);
+            try {
+                Field field = Bukkit.class.getDeclaredField("server");
+                field.setAccessible(true);
+                field.set(null, stub);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot install the stub server", e);
+            }
+            server = stub;
+        }
+        return server;
+    }
+
+    /**
+     * Runs every task immediately on the calling thread, like a single-threaded server where
+     * each hit lands in its own tick.
+     */
+    static final class InlineTaskScheduler implements TaskScheduler {
+        private static final TaskHandle NO_TASK = () -> { };
+
+        @Override
+        public boolean isFolia() {
+            return false;
+        }
+
+        @Override
+        public void runGlobal(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public void executeGlobal(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public TaskHandle runGlobalLater(Runnable task, long delayTicks) {
+            return NO_TASK;
+        }
+
+        @Override
+        public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+            return NO_TASK;
+        }
+
+        @Override
+        public void executeForEntity(Entity entity, Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public <T> CompletableFuture<T> callAtLocation(Location location, Supplier<T> task) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+
+        @Override
+        public void runAsync(Runnable task) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.vwtfafa.hitBorder.benchmark;
+
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.border.GrowthAccumulator;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.listener.PlayerDamageListener;
+import org.vwtfafa.hitBorder.notify.NotificationRecipients;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
+import org.vwtfafa.hitBorder.session.PlayerSessionStore;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * The full {@link PlayerDamageListener#onPlayerDamage(EntityDamageEvent)} decision chain, from
+ * the cheapest early return to a hit that grows the border. In the growth scenario the
+ * accumulator is flushed inline, so one operation is one hit plus its border update; the formula
+ * scenario does the same with a non-linear {@code border.growth-formula}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DamageDecisionBenchmark {
+
+    public enum Scenario {
+        IGNORED_CAUSE,
+        NOT_BORDER_WORLD,
+        COOLDOWN,
+        GROWTH,
+        FORMULA_GROWTH
+    }
+
+    @Param
+    public Scenario scenario;
+
+    private PlayerDamageListener listener;
+    private EntityDamageEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Server server = BenchmarkFixtures.server();
+        BorderSettings settings = BenchmarkFixtures.settings(String.join("\n",
+                "border:",
+                "  initial-size: 100.0",
+                "  max-size: 1000000.0",
+                "  grow-amount: 0.25",
+                "  growth-cooldown: " + (scenario == Scenario.COOLDOWN ? 10 : 0),
+                "  growth-formula: " + (scenario == Scenario.FORMULA_GROWTH
+                        ? "\"amount * damage * weight / sqrt(size) * (1 + 4 / players)\""
+                        : "\"amount * damage * weight\""),
+                "game:",
+                "  damage-types: [ENTITY_ATTACK, FALL]",
+                ""));
+
+        World borderWorld = world("world");
+        when(server.getWorld("world")).thenReturn(borderWorld);
+        World otherWorld = world("lobby");
+
+        HitBorder plugin = BenchmarkFixtures.stub(HitBorder.class);
+        ConfigManager configManager = BenchmarkFixtures.stub(ConfigManager.class);
+        NotificationRecipients recipients = BenchmarkFixtures.stub(NotificationRecipients.class);
+        when(configManager.getSettings()).thenReturn(settings);
+        when(configManager.isEnabled()).thenReturn(true);
+        when(recipients.get(borderWorld)).thenReturn(new Player[0]);
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(BenchmarkFixtures.LOGGER);
+        when(plugin.getPerfMonitor()).thenReturn(new PerfMonitor());
+        when(plugin.getConfigManager()).thenReturn(configManager);
+        when(plugin.getNotificationRecipients()).thenReturn(recipients);
+        when(plugin.getTaskScheduler()).thenReturn(new BenchmarkFixtures.InlineTaskScheduler());
+
+        PlayerSessionStore sessionStore = new PlayerSessionStore();
+        BorderManager borderManager = new BorderManager(plugin);
+        borderManager.applySettings(settings);
+        GrowthAccumulator growthAccumulator = new GrowthAccumulator(plugin);
+        when(plugin.getSessionStore()).thenReturn(sessionStore);
+        when(plugin.getBorderManager()).thenReturn(borderManager);
+        when(plugin.getGrowthAccumulator()).thenReturn(growthAccumulator);
+        listener = new PlayerDamageListener(plugin);
+
+        Player player = BenchmarkFixtures.stub(Player.class);
+        doReturn(List.of(player)).when(server).getOnlinePlayers();
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.getName()).thenReturn("Steve");
+        when(player.getWorld()).thenReturn(scenario == Scenario.NOT_BORDER_WORLD ? otherWorld : borderWorld);
+        if (scenario == Scenario.COOLDOWN) {
+            sessionStore.get(player).recordGrowth(BenchmarkFixtures.CURRENT_TICK);
+        }
+
+        event = BenchmarkFixtures.stub(EntityDamageEvent.class);
+        when(event.getEntityType()).thenReturn(EntityType.PLAYER);
+        when(event.getEntity()).thenReturn(player);
+        when(event.getCause()).thenReturn(scenario == Scenario.IGNORED_CAUSE ? DamageCause.MELTING : DamageCause.ENTITY_ATTACK);
+        when(event.getFinalDamage()).thenReturn(3.0);
+    }
+
+    private static World world(String name) {
+        World world = BenchmarkFixtures.stub(World.class);
+        WorldBorder border = BenchmarkFixtures.stub(WorldBorder.class);
+        when(border.getSize()).thenReturn(200.0);
+        when(world.getName()).thenReturn(name);
+        when(world.getWorldBorder()).thenReturn(border);
+        return world;
+    }
+
+    @Benchmark
+    public void onPlayerDamage() {
+        listener.onPlayerDamage(event);
+    }
+}
@@ -0,0 +1,97 @@
+package org.vwtfafa.hitBorder.benchmark;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+import net.luckperms.api.query.QueryOptions;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.util.LuckPermsHook;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link LuckPermsHook#isInAnyGroup(Player, List)} against a stub LuckPerms provider: the
+ * cached path taken for every notification, and the miss path that resolves the groups through
+ * the linked method handles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LuckPermsHookBenchmark {
+    private static final List<String> MATCHING_GROUPS = List.of("admin", "moderator", "vip");
+    private static final List<String> OTHER_GROUPS = List.of("admin", "moderator", "builder");
+
+    private LuckPermsHook hook;
+    private Player player;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        UUID uuid = UUID.randomUUID();
+        QueryOptions queryOptions = BenchmarkFixtures.stub(QueryOptions.class);
+        Collection<Group> groups = new ArrayList<>();
+        for (String name : new String[]{"Default", "Member", "VIP"}) {
+            Group group = BenchmarkFixtures.stub(Group.class);
+            when(group.getName()).thenReturn(name);
+            groups.add(group);
+        }
+        User user = BenchmarkFixtures.stub(User.class);
+        when(user.getUniqueId()).thenReturn(uuid);
+        when(user.getQueryOptions()).thenReturn(queryOptions);
+        when(user.getInheritedGroups(queryOptions)).thenReturn(groups);
+        UserManager userManager = BenchmarkFixtures.stub(UserManager.class);
+        when(userManager.getUser(uuid)).thenReturn(user);
+        LuckPerms luckPerms = BenchmarkFixtures.stub(LuckPerms.class);
+        when(luckPerms.getUserManager()).thenReturn(userManager);
+        when(luckPerms.getEventBus()).thenReturn(BenchmarkFixtures.stub(EventBus.class));
+
+        // The provider is normally registered by the LuckPerms plugin itself
+        Method register = LuckPermsProvider.class.getDeclaredMethod("register", LuckPerms.class);
+        register.setAccessible(true);
+        register.invoke(null, luckPerms);
+
+        HitBorder plugin = BenchmarkFixtures.stub(HitBorder.class);
+        when(plugin.getLogger()).thenReturn(BenchmarkFixtures.LOGGER);
+        hook = new LuckPermsHook(plugin, new BenchmarkFixtures.InlineTaskScheduler());
+        if (!hook.isAvailable()) {
+            throw new IllegalStateException("LuckPerms hook did not link against the stub provider");
+        }
+
+        player = BenchmarkFixtures.stub(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+    }
+
+    @Benchmark
+    public boolean cachedMember() {
+        return hook.isInAnyGroup(player, MATCHING_GROUPS);
+    }
+
+    @Benchmark
+    public boolean cachedNonMember() {
+        return hook.isInAnyGroup(player, OTHER_GROUPS);
+    }
+
+    @Benchmark
+    public boolean uncachedLookup() {
+        hook.invalidate(player.getUniqueId());
+        return hook.isInAnyGroup(player, MATCHING_GROUPS);
+    }
+}
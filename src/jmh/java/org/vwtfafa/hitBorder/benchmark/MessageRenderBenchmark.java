@@ -0,0 +1,69 @@
+package org.vwtfafa.hitBorder.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message rendering as the plugin does it: look up the compiled template in the settings
+ * snapshot and fill its placeholders, rebuilding only the components that contain them.
+ * {@link #legacyReplaceFormat()} renders the same message the way the plugin did before
+ * templates were precompiled (colour translation, replace and {@code String.format} per call,
+ * then the legacy string to component conversion the server did per recipient), as a reference
+ * point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageRenderBenchmark {
+    private static final String RAW_GROW = "&eThe world border is growing to &6%size% blocks&e!";
+    private static final String RAW_PREFIX = "&7[&6HitBorder&7] ";
+
+    private BorderSettings settings;
+    private double size;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        settings = BenchmarkFixtures.settings("");
+        size = 123.456;
+    }
+
+    @Benchmark
+    public Component renderSize() {
+        return settings.getMessage("border-grow").renderSize(size);
+    }
+
+    @Benchmark
+    public Component renderSizeAndPlayer() {
+        return settings.getMessage("hardcore-death").render(size, "Steve");
+    }
+
+    @Benchmark
+    public Component renderArgs() {
+        return settings.getMessage("usage-grow").renderArgs("hitborder");
+    }
+
+    @Benchmark
+    public Component renderPlain() {
+        return settings.getMessage("spawn-protection").render();
+    }
+
+    @Benchmark
+    public Component legacyReplaceFormat() {
+        String message = ChatColor.translateAlternateColorCodes('&', RAW_PREFIX + RAW_GROW);
+        return LegacyComponentSerializer.legacySection()
+                .deserialize(message.replace("%size%", String.format(Locale.ROOT, "%.1f", size)));
+    }
+}
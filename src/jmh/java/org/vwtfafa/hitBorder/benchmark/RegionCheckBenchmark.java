@@ -0,0 +1,134 @@
+package org.vwtfafa.hitBorder.benchmark;
+
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.listener.BlockBreakListener;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
+import org.vwtfafa.hitBorder.protection.RegionIndex;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Spawn and region protection checks: {@link RegionIndex} lookups for the three outcomes a
+ * block can have, and {@link BlockBreakListener} handling a break event end to end. The spawn
+ * area covers x/z 0..16; the configured regions are 32x32 squares spread 256 blocks apart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionCheckBenchmark {
+    private static final int REGION_SPACING = 256;
+    private static final int REGION_SIZE = 32;
+
+    @Param({"0", "16", "256"})
+    public int regionCount;
+
+    private RegionIndex index;
+    private BlockBreakListener listener;
+    private BlockBreakEvent breakOutside;
+    private BlockBreakEvent breakInside;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder yaml = new StringBuilder("spawn:\n  x: 8\n  z: 8\n  protection-radius: 8\n");
+        if (regionCount > 0) {
+            yaml.append("protection:\n  regions:\n");
+        }
+        int perRow = Math.max(1, (int) Math.ceil(Math.sqrt(regionCount)));
+        for (int i = 0; i < regionCount; i++) {
+            int x = (1 + i % perRow) * REGION_SPACING;
+            int z = (1 + i / perRow) * REGION_SPACING;
+            yaml.append("    r").append(i).append(":\n")
+                    .append("      x1: ").append(x).append('\n')
+                    .append("      z1: ").append(z).append('\n')
+                    .append("      x2: ").append(x + REGION_SIZE - 1).append('\n')
+                    .append("      z2: ").append(z + REGION_SIZE - 1).append('\n');
+        }
+        BorderSettings settings = BenchmarkFixtures.settings(yaml.toString());
+        index = settings.getPrimaryWorld().getProtection();
+
+        Server server = BenchmarkFixtures.server();
+        World world = BenchmarkFixtures.stub(World.class);
+        when(world.getName()).thenReturn("world");
+        when(server.getWorld("world")).thenReturn(world);
+
+        HitBorder plugin = BenchmarkFixtures.stub(HitBorder.class);
+        ConfigManager configManager = BenchmarkFixtures.stub(ConfigManager.class);
+        when(configManager.getSettings()).thenReturn(settings);
+        when(configManager.isEnabled()).thenReturn(true);
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(BenchmarkFixtures.LOGGER);
+        when(plugin.getPerfMonitor()).thenReturn(new PerfMonitor());
+        when(plugin.getConfigManager()).thenReturn(configManager);
+        BorderManager borderManager = new BorderManager(plugin);
+        borderManager.applySettings(settings);
+        when(plugin.getBorderManager()).thenReturn(borderManager);
+        listener = new BlockBreakListener(plugin);
+
+        // The breaking player has the bypass permission, so a protected break is not cancelled
+        Player player = BenchmarkFixtures.stub(Player.class);
+        when(player.hasPermission(BorderSettings.SPAWN_BYPASS_PERMISSION)).thenReturn(true);
+        breakOutside = breakEvent(player, block(world, 5000, 64, -5000));
+        breakInside = breakEvent(player, block(world, 8, 64, 8));
+    }
+
+    private static Block block(World world, int x, int y, int z) {
+        Block block = BenchmarkFixtures.stub(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        return block;
+    }
+
+    private static BlockBreakEvent breakEvent(Player player, Block block) {
+        BlockBreakEvent event = BenchmarkFixtures.stub(BlockBreakEvent.class);
+        when(event.getPlayer()).thenReturn(player);
+        when(event.getBlock()).thenReturn(block);
+        return event;
+    }
+
+    @Benchmark
+    public boolean indexOutsideProtectedChunks() {
+        return index.isProtected(5000, 64, -5000);
+    }
+
+    @Benchmark
+    public boolean indexInsideSpawn() {
+        return index.isProtected(8, 64, 8);
+    }
+
+    @Benchmark
+    public boolean indexProtectedChunkOutsideRegion() {
+        // Chunk (1, 1) overlaps the spawn area, but this block lies outside it
+        return index.isProtected(30, 64, 30);
+    }
+
+    @Benchmark
+    public void blockBreakOutside() {
+        listener.onBlockBreak(breakOutside);
+    }
+
+    @Benchmark
+    public void blockBreakInside() {
+        listener.onBlockBreak(breakInside);
+    }
+}
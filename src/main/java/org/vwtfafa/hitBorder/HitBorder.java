@@ -1,28 +1,56 @@
 package org.vwtfafa.hitBorder;
 
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.border.GrowthAccumulator;
+import org.vwtfafa.hitBorder.border.ShrinkEngine;
+import org.vwtfafa.hitBorder.border.VirtualBorderManager;
 import org.vwtfafa.hitBorder.command.HitBorderCommand;
 import org.vwtfafa.hitBorder.command.HitBorderTabCompleter;
+import org.vwtfafa.hitBorder.config.BorderSettings;
 import org.vwtfafa.hitBorder.config.ConfigManager;
 import org.vwtfafa.hitBorder.listener.BlockBreakListener;
 import org.vwtfafa.hitBorder.listener.PlayerDamageListener;
 import org.vwtfafa.hitBorder.listener.PlayerSpawnListener;
+import org.vwtfafa.hitBorder.listener.ProtectionListener;
+import org.vwtfafa.hitBorder.notify.BorderDisplay;
+import org.vwtfafa.hitBorder.notify.NotificationRecipients;
+import org.vwtfafa.hitBorder.perf.OpenMetricsEndpoint;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+import org.vwtfafa.hitBorder.session.PlayerSessionStore;
+import org.vwtfafa.hitBorder.spawn.SafeSpawnPool;
+import org.vwtfafa.hitBorder.storage.BorderStateStore;
 import org.vwtfafa.hitBorder.util.LuckPermsHook;
 import org.vwtfafa.hitBorder.util.UpdateChecker;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public final class HitBorder extends JavaPlugin {
     private static HitBorder instance;
+    private TaskScheduler taskScheduler;
     private ConfigManager configManager;
     private PlayerDamageListener damageListener;
     private BlockBreakListener blockBreakListener;
     private PlayerSpawnListener spawnListener;
     private LuckPermsHook luckPermsHook;
+    private GrowthAccumulator growthAccumulator;
+    private ShrinkEngine shrinkEngine;
+    private BorderManager borderManager;
+    private VirtualBorderManager virtualBorderManager;
+    private NotificationRecipients notificationRecipients;
+    private BorderDisplay borderDisplay;
+    private PlayerSessionStore sessionStore;
+    private BorderStateStore borderStateStore;
+    private SafeSpawnPool safeSpawnPool;
+    private PerfMonitor perfMonitor;
+    private OpenMetricsEndpoint metricsEndpoint;
     private static final String GITHUB_REPO = "vwtfafa/HitBorder";
     private boolean isEnabled = false;
 
@@ -34,20 +62,86 @@ public final class HitBorder extends JavaPlugin {
         saveDefaultConfig();
         
         try {
+            // Bukkit scheduler on Paper, global/region/entity schedulers on Folia
+            this.taskScheduler = TaskScheduler.create(this);
+
             // Initialize config manager
-            this.configManager = new ConfigManager(this);
+            this.configManager = new ConfigManager(this, taskScheduler);
             
+            // Handler timings and counters for /hitborder perf and the metrics endpoint, free while both are off
+            this.perfMonitor = new PerfMonitor();
+            perfMonitor.setEnabled(isPerfMonitorNeeded(configManager.getSettings()));
+            configManager.addSettingsListener(settings -> perfMonitor.setEnabled(isPerfMonitorNeeded(settings)));
+
             // Initialize integrations
-            this.luckPermsHook = new LuckPermsHook();
+            this.luckPermsHook = new LuckPermsHook(this, taskScheduler);
             if (luckPermsHook.isAvailable()) {
                 getLogger().info("LuckPerms detected and linked.");
             }
 
+            // Per-player state lives for the whole plugin lifetime, across reloads
+            this.sessionStore = new PlayerSessionStore();
+            getServer().getPluginManager().registerEvents(sessionStore, this);
+            sessionStore.loadOnlinePlayers();
+
+            // One border controller per loaded border world, kept in sync with the settings
+            this.borderManager = new BorderManager(this);
+            getServer().getPluginManager().registerEvents(borderManager, this);
+            borderManager.applySettings(configManager.getSettings());
+            configManager.addSettingsListener(borderManager::applySettings);
+
+            // Player and team borders of worlds in a virtual border mode
+            this.virtualBorderManager = new VirtualBorderManager(this);
+            getServer().getPluginManager().registerEvents(virtualBorderManager, this);
+            configManager.addSettingsListener(virtualBorderManager::applySettings);
+            virtualBorderManager.start();
+
+            // Continue from the last saved border state instead of the initial size
+            this.borderStateStore = new BorderStateStore(this);
+            borderStateStore.load();
+            taskScheduler.executeGlobal(borderStateStore::restoreAll);
+            // Show players already online (after a plugin reload) their borders, once the saved sizes are back
+            taskScheduler.executeGlobal(() -> virtualBorderManager.applySettings(configManager.getSettings()));
+            borderStateStore.setSaveInterval(configManager.getSettings().getSaveIntervalMinutes());
+            configManager.addSettingsListener(settings -> borderStateStore.setSaveInterval(settings.getSaveIntervalMinutes()));
+
+            // Optional local OpenMetrics endpoint
+            this.metricsEndpoint = new OpenMetricsEndpoint(this, perfMonitor);
+            metricsEndpoint.applySettings(configManager.getSettings());
+            configManager.addSettingsListener(metricsEndpoint::applySettings);
+
+            // Border growth is collected per tick and applied in one update
+            this.growthAccumulator = new GrowthAccumulator(this);
+            growthAccumulator.applySettings(configManager.getSettings());
+            configManager.addSettingsListener(growthAccumulator::applySettings);
+
+            // Shrinking runs as one repeating task for all border worlds
+            this.shrinkEngine = new ShrinkEngine(this);
+            shrinkEngine.start();
+
+            // Safe spawn points are found in the background and handed out on join/respawn
+            this.safeSpawnPool = new SafeSpawnPool(this);
+            safeSpawnPool.start();
+
+            // Notification recipients are indexed once and kept up to date by events
+            this.notificationRecipients = new NotificationRecipients(this);
+            getServer().getPluginManager().registerEvents(notificationRecipients, this);
+            notificationRecipients.rebuildAll();
+            luckPermsHook.setRecalculationListener(uuid -> {
+                org.bukkit.entity.Player player = getServer().getPlayer(uuid);
+                if (player != null) notificationRecipients.refresh(player);
+            });
+
+            // Border size on a boss bar or in the action bar, refreshed at a capped rate
+            this.borderDisplay = new BorderDisplay(this);
+            borderDisplay.applySettings(configManager.getSettings());
+            configManager.addSettingsListener(borderDisplay::applySettings);
+
             // Register commands
             Objects.requireNonNull(getCommand("hitborder"), "Failed to register commands. Check plugin.yml")
                 .setExecutor(new HitBorderCommand(this));
             Objects.requireNonNull(getCommand("hitborder"), "Failed to register commands. Check plugin.yml")
-                .setTabCompleter(new HitBorderTabCompleter());
+                .setTabCompleter(new HitBorderTabCompleter(this));
             
             // Register event listeners
             this.damageListener = new PlayerDamageListener(this);
@@ -57,6 +151,9 @@ public final class HitBorder extends JavaPlugin {
             getServer().getPluginManager().registerEvents(damageListener, this);
             getServer().getPluginManager().registerEvents(blockBreakListener, this);
             getServer().getPluginManager().registerEvents(spawnListener, this);
+
+            // Explosions, pistons, fluids and fire; reads the settings live, so never re-created
+            getServer().getPluginManager().registerEvents(new ProtectionListener(this), this);
             
             // Initialize bStats metrics
             if (getConfig().getBoolean("metrics.enabled", true)) {
@@ -73,7 +170,7 @@ public final class HitBorder extends JavaPlugin {
             // Set up update checker if enabled in config
             if (getConfig().getBoolean("update-checker.enabled", true)) {
                 String repo = getConfig().getString("update-checker.github-repo", GITHUB_REPO);
-                new UpdateChecker(this, repo).checkForUpdates();
+                new UpdateChecker(this, taskScheduler, repo).checkForUpdates();
             }
             
             getLogger().info("HitBorder v" + getDescription().getVersion() + " has been enabled!");
@@ -85,8 +182,39 @@ public final class HitBorder extends JavaPlugin {
         }
     }
 
+    private static boolean isPerfMonitorNeeded(BorderSettings settings) {
+        return settings.isInstrumentationEnabled() || settings.isMetricsEndpointEnabled();
+    }
+
     @Override
     public void onDisable() {
+        if (metricsEndpoint != null) {
+            metricsEndpoint.stop();
+        }
+        if (shrinkEngine != null) {
+            shrinkEngine.stop();
+        }
+        if (borderDisplay != null) {
+            borderDisplay.stop();
+        }
+        if (safeSpawnPool != null) {
+            safeSpawnPool.stop();
+        }
+        if (growthAccumulator != null) {
+            growthAccumulator.close();
+        }
+        if (virtualBorderManager != null) {
+            virtualBorderManager.close();
+        }
+        if (borderStateStore != null) {
+            borderStateStore.close();
+        }
+        if (luckPermsHook != null) {
+            luckPermsHook.close();
+        }
+        if (configManager != null) {
+            configManager.close();
+        }
         getLogger().info("HitBorder has been disabled!");
     }
     
@@ -97,11 +225,42 @@ public final class HitBorder extends JavaPlugin {
     public ConfigManager getConfigManager() {
         return configManager;
     }
+
+    /**
+     * Returns the configuration held by the {@link ConfigManager}, which reads the file off the
+     * main thread and swaps the result in; before it exists, the default Bukkit configuration.
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        return configManager != null ? configManager.getConfig() : super.getConfig();
+    }
+
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    public PerfMonitor getPerfMonitor() {
+        return perfMonitor;
+    }
     
-    public void reloadPlugin() {
-        reloadConfig();
-        if (configManager != null) configManager.reload();
+    /**
+     * Reloads the configuration in the background and then re-registers the listeners on the
+     * main thread. The file is read once, by {@link ConfigManager#reload()}.
+     * @return A future completed on the main thread with whether the new configuration is in effect
+     */
+    public CompletableFuture<Boolean> reloadPlugin() {
+        if (configManager == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return configManager.reload().thenApply(reloaded -> {
+            if (reloaded) {
+                reregisterListeners();
+            }
+            return reloaded;
+        });
+    }
 
+    private void reregisterListeners() {
         // Unregister previous listeners to avoid duplicate handling
         try {
             if (damageListener != null) org.bukkit.event.HandlerList.unregisterAll(damageListener);
@@ -119,6 +278,9 @@ public final class HitBorder extends JavaPlugin {
         getServer().getPluginManager().registerEvents(blockBreakListener, this);
         getServer().getPluginManager().registerEvents(spawnListener, this);
 
+        // Notify groups may have changed
+        if (notificationRecipients != null) notificationRecipients.rebuildAll();
+
         getLogger().info("HitBorder configuration reloaded!");
     }
     
@@ -130,4 +292,36 @@ public final class HitBorder extends JavaPlugin {
     public LuckPermsHook getLuckPermsHook() {
         return luckPermsHook;
     }
+
+    public GrowthAccumulator getGrowthAccumulator() {
+        return growthAccumulator;
+    }
+
+    public ShrinkEngine getShrinkEngine() {
+        return shrinkEngine;
+    }
+
+    public SafeSpawnPool getSafeSpawnPool() {
+        return safeSpawnPool;
+    }
+
+    public BorderStateStore getBorderStateStore() {
+        return borderStateStore;
+    }
+
+    public BorderManager getBorderManager() {
+        return borderManager;
+    }
+
+    public VirtualBorderManager getVirtualBorderManager() {
+        return virtualBorderManager;
+    }
+
+    public NotificationRecipients getNotificationRecipients() {
+        return notificationRecipients;
+    }
+
+    public PlayerSessionStore getSessionStore() {
+        return sessionStore;
+    }
 }
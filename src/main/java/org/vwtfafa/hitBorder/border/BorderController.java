@@ -0,0 +1,109 @@
+package org.vwtfafa.hitBorder.border;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime state of one world with a HitBorder border: its compiled settings, the growth
+ * collected during the current tick and the size transition currently in progress.
+ * Created and discarded by {@link BorderManager}. Transitions are only started on the main
+ * thread (the global region on Folia); pending growth is guarded by {@link GrowthAccumulator}.
+ * <p>
+ * All timed size changes go through {@link #transitionTo(double, long)} so that growth
+ * and shrinking can see each other's transitions instead of cancelling them.
+ */
+public class BorderController {
+    private final BorderManager manager;
+    private final World world;
+    private volatile WorldSettings settings;
+
+    // Growth collected during the current tick, applied by GrowthAccumulator
+    private double pendingDiameter;
+    private final List<Player> contributors = new ArrayList<>(4);
+
+    // The transition last started through transitionTo
+    private volatile double targetDiameter = Double.NaN;
+    private volatile int transitionEndTick = Integer.MIN_VALUE;
+
+    BorderController(BorderManager manager, World world, WorldSettings settings) {
+        this.manager = manager;
+        this.world = world;
+        this.settings = settings;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public WorldSettings getSettings() {
+        return settings;
+    }
+
+    void updateSettings(WorldSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Starts a smooth border transition and records when it ends.
+     * @param diameter The target diameter
+     * @param seconds Length of the transition in seconds (0 applies it immediately)
+     */
+    public void transitionTo(double diameter, long seconds) {
+        world.getWorldBorder().setSize(diameter, seconds);
+        this.targetDiameter = diameter;
+        this.transitionEndTick = Bukkit.getCurrentTick() + (int) Math.min(Integer.MAX_VALUE / 2, seconds * 20);
+        manager.onTransition(this);
+    }
+
+    /**
+     * @param currentTick The current server tick
+     * @return true if a transition started through this controller has not finished yet
+     */
+    public boolean isTransitioning(int currentTick) {
+        return currentTick < transitionEndTick;
+    }
+
+    /**
+     * @param currentTick The current server tick
+     * @return The ticks left until the running transition ends, or 0 if none is running
+     */
+    public int getRemainingTransitionTicks(int currentTick) {
+        return isTransitioning(currentTick) ? transitionEndTick - currentTick : 0;
+    }
+
+    /**
+     * @return The target diameter of the last transition, or NaN if none was started yet
+     */
+    public double getTargetDiameter() {
+        return targetDiameter;
+    }
+
+    /**
+     * Adds growth for the current tick.
+     * @return true if this was the first contribution since the last flush
+     */
+    boolean addPendingGrowth(Player player, double diameterDelta) {
+        boolean first = contributors.isEmpty();
+        pendingDiameter += diameterDelta;
+        contributors.add(player);
+        return first;
+    }
+
+    double getPendingDiameter() {
+        return pendingDiameter;
+    }
+
+    List<Player> getContributors() {
+        return contributors;
+    }
+
+    void clearPending() {
+        pendingDiameter = 0;
+        contributors.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package org.vwtfafa.hitBorder.border;
+
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the {@link BorderController}s of all loaded border worlds, keyed by {@link World}
+ * identity so event dispatch needs a single map probe instead of comparing world names.
+ * <p>
+ * Controllers are added and removed on {@link WorldLoadEvent}/{@link WorldUnloadEvent} and
+ * updated whenever a new settings snapshot is published. The map is copied on every change and
+ * published through a volatile field, so lookups from any thread (region threads on Folia) need
+ * no locking.
+ */
+public class BorderManager implements Listener {
+    private final HitBorder plugin;
+    private volatile Map<World, BorderController> controllers = new IdentityHashMap<>();
+
+    public BorderManager(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @param world A world
+     * @return The controller of that world, or null if HitBorder does not manage its border
+     */
+    @Nullable
+    public BorderController get(World world) {
+        return controllers.get(world);
+    }
+
+    /**
+     * @param worldName A world name
+     * @return The controller of the loaded world with that name, or null
+     */
+    @Nullable
+    public BorderController getByName(String worldName) {
+        World world = plugin.getServer().getWorld(worldName);
+        return world == null ? null : controllers.get(world);
+    }
+
+    /**
+     * @return The controller of the primary world, or null if it is not loaded
+     */
+    @Nullable
+    public BorderController getPrimary() {
+        return getByName(plugin.getConfigManager().getSettings().getWorldName());
+    }
+
+    public Collection<BorderController> getControllers() {
+        return Collections.unmodifiableCollection(controllers.values());
+    }
+
+    /**
+     * Synchronises the controllers with a newly published settings snapshot: updates existing
+     * controllers, adds loaded worlds that became border worlds and drops the ones that no
+     * longer are.
+     * @param settings The new settings
+     */
+    public synchronized void applySettings(BorderSettings settings) {
+        Map<World, BorderController> controllers = new IdentityHashMap<>(this.controllers);
+        Iterator<Map.Entry<World, BorderController>> it = controllers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<World, BorderController> entry = it.next();
+            WorldSettings worldSettings = settings.getWorld(entry.getKey().getName());
+            if (worldSettings == null) {
+                it.remove();
+            } else {
+                entry.getValue().updateSettings(worldSettings);
+            }
+        }
+
+        for (WorldSettings worldSettings : settings.getWorlds().values()) {
+            World world = plugin.getServer().getWorld(worldSettings.getWorldName());
+            if (world != null && !controllers.containsKey(world)) {
+                controllers.put(world, new BorderController(this, world, worldSettings));
+            }
+        }
+        this.controllers = controllers;
+    }
+
+    /**
+     * Called by a controller after it started a transition, so the safe spawn pool can drop
+     * points the border is moving away from.
+     */
+    void onTransition(BorderController controller) {
+        if (plugin.getSafeSpawnPool() != null) {
+            plugin.getSafeSpawnPool().onBorderChanged(controller);
+        }
+    }
+
+    /**
+     * @return The names of all configured border worlds that are currently loaded
+     */
+    public List<String> getWorldNames() {
+        Map<World, BorderController> controllers = this.controllers;
+        List<String> names = new ArrayList<>(controllers.size());
+        for (World world : controllers.keySet()) {
+            names.add(world.getName());
+        }
+        return names;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        World world = event.getWorld();
+        WorldSettings worldSettings = plugin.getConfigManager().getSettings().getWorld(world.getName());
+        if (worldSettings == null || controllers.containsKey(world)) {
+            return;
+        }
+        BorderController controller = new BorderController(this, world, worldSettings);
+        synchronized (this) {
+            Map<World, BorderController> copy = new IdentityHashMap<>(controllers);
+            copy.put(world, controller);
+            controllers = copy;
+        }
+        plugin.getTaskScheduler().executeGlobal(() -> {
+            if (plugin.getConfigManager().initializeWorldBorder(world, worldSettings)) {
+                plugin.getBorderStateStore().restore(controller);
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public synchronized void onWorldUnload(WorldUnloadEvent event) {
+        BorderController controller = controllers.get(event.getWorld());
+        if (controller == null) {
+            return;
+        }
+        // Keep its state until the next save, and for the next load of the world
+        if (plugin.getBorderStateStore() != null) {
+            plugin.getBorderStateStore().stash(controller);
+        }
+        Map<World, BorderController> copy = new IdentityHashMap<>(controllers);
+        copy.remove(event.getWorld());
+        controllers = copy;
+    }
+}
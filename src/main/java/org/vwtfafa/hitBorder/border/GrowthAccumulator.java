@@ -0,0 +1,330 @@
+package org.vwtfafa.hitBorder.border;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.DisplayMode;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.notify.GrowthDigest;
+import org.vwtfafa.hitBorder.notify.NotificationRecipients;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects border growth from all damage events of one tick and applies it with a single
+ * {@link WorldBorder#setSize(double, long)} call per world at the start of the next tick.
+ * <p>
+ * A brawl or explosion that damages many players at once therefore restarts the border lerp
+ * once (one set of border packets) and sends one notification, instead of once per hit. Unless
+ * {@code game.display.mode} is {@code chat}, the size is shown by the {@code BorderDisplay} and
+ * only milestones and the maximum size are announced in chat. Announcements of a border that
+ * grows faster than {@code game.digest.threshold} allows are folded into a {@link GrowthDigest}.
+ * The pending amounts live in each world's {@link BorderController}, or in the
+ * {@link VirtualBorder} of a player or team, and are guarded by this accumulator's lock,
+ * because on Folia damage events arrive on several region threads. The flush runs on the
+ * global region, which owns all world borders. A virtual border gets one {@code setSize} call
+ * per tick too, so its viewers receive one border update however many of their hits it
+ * collected. A notification is rendered once and sent to the world's recipients through their
+ * shared forwarding audience.
+ */
+public class GrowthAccumulator {
+    private final HitBorder plugin;
+    private final List<BorderController> dirty = new ArrayList<>(); // guarded by this
+    private final List<VirtualBorder> dirtyVirtual = new ArrayList<>(); // guarded by this
+    private boolean flushScheduled; // guarded by this
+    private final GrowthDigest digest;
+
+    public GrowthAccumulator(HitBorder plugin) {
+        this.plugin = plugin;
+        this.digest = new GrowthDigest(plugin, this::sendDigest);
+    }
+
+    /**
+     * Applies a newly published settings snapshot to the growth digest.
+     * @param settings The new settings
+     */
+    public void applySettings(BorderSettings settings) {
+        digest.applySettings(settings);
+    }
+
+    /**
+     * Applies all pending growth and sends the pending digest summaries. Called on disable.
+     */
+    public void close() {
+        flush();
+        digest.stop();
+    }
+
+    /**
+     * Adds a growth contribution for the current tick.
+     * @param controller The controller of the world whose border should grow
+     * @param player The damaged player (used for hardcore handling)
+     * @param diameterDelta Growth in blocks of diameter
+     */
+    public synchronized void add(BorderController controller, Player player, double diameterDelta) {
+        if (controller.addPendingGrowth(player, diameterDelta)) {
+            dirty.add(controller);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Adds a growth contribution to a player's or team's virtual border for the current tick.
+     * @param border The virtual border that should grow
+     * @param player The damaged player (used for hardcore handling)
+     * @param diameterDelta Growth in blocks of diameter
+     */
+    public synchronized void add(VirtualBorder border, Player player, double diameterDelta) {
+        if (border.addPendingGrowth(player, diameterDelta)) {
+            dirtyVirtual.add(border);
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            plugin.getTaskScheduler().runGlobal(this::flush);
+        }
+    }
+
+    /**
+     * Applies all pending growth. Called once per tick by the scheduler, and on disable.
+     */
+    public synchronized void flush() {
+        flushScheduled = false;
+        if (dirty.isEmpty() && dirtyVirtual.isEmpty()) {
+            return;
+        }
+
+        BorderSettings settings = plugin.getConfigManager().getSettings();
+        for (BorderController controller : dirty) {
+            apply(settings, controller);
+            controller.clearPending();
+        }
+        dirty.clear();
+        for (VirtualBorder border : dirtyVirtual) {
+            apply(settings, border);
+            border.clearPending();
+        }
+        dirtyVirtual.clear();
+    }
+
+    private void apply(BorderSettings settings, BorderController controller) {
+        World world = controller.getWorld();
+        WorldSettings worldSettings = controller.getSettings();
+        List<Player> contributors = controller.getContributors();
+
+        WorldBorder border = world.getWorldBorder();
+        double currentSize = border.getSize();
+        double maxSize = worldSettings.getMaxDiameter();
+        double newSize = currentSize + controller.getPendingDiameter();
+
+        // Clamp the aggregated result to the maximum size
+        boolean atMaxSize = false;
+        if (newSize >= maxSize) {
+            newSize = maxSize;
+            atMaxSize = true;
+
+            // Don't grow border if already at max size
+            if (Math.abs(currentSize - maxSize) < 0.1) {
+                if (settings.isLogBorderChanges()) {
+                    plugin.getLogger().info("Border already at maximum size, not growing further");
+                }
+                if (settings.isHardcoreMode()) {
+                    killForHardcore(settings, contributors, world, maxSize / 2);
+                }
+                return;
+            }
+        }
+
+        // Apply new border size with smooth transition; this supersedes a running shrink transition
+        int growTime = worldSettings.getGrowTime();
+        controller.transitionTo(newSize, growTime);
+
+        // Notify players with permission (chat + optional sound ping), once per tick; with a
+        // boss bar or action bar display only milestones are announced in chat
+        MessageTemplate message = settings.getMessage("border-grow");
+        if (!message.isEmpty() && isAnnounced(settings, currentSize, newSize)
+                && digest.offer(controller, newSize, settings)) {
+            broadcast(settings, world, message.renderSize(newSize / 2), true);
+        }
+
+        if (atMaxSize) {
+            MessageTemplate maxMessage = settings.getMessage("border-max");
+            if (!maxMessage.isEmpty()) {
+                broadcast(settings, world, maxMessage.renderSize(newSize / 2), true);
+            }
+            if (settings.isHardcoreMode()) {
+                killForHardcore(settings, contributors, world, newSize / 2);
+            }
+        }
+
+        // Debug logging
+        if (settings.isLogBorderChanges()) {
+            plugin.getLogger().info(String.format(
+                    "Border in %s growing from %.1f to %.1f (radius) over %d seconds (%d hits this tick)",
+                    world.getName(),
+                    currentSize / 2,
+                    newSize / 2,
+                    growTime,
+                    contributors.size()
+            ));
+        }
+    }
+
+    private void apply(BorderSettings settings, VirtualBorder virtualBorder) {
+        BorderController controller = plugin.getBorderManager().get(virtualBorder.getWorld());
+        if (controller == null) {
+            return;
+        }
+        World world = virtualBorder.getWorld();
+        WorldSettings worldSettings = controller.getSettings();
+        List<Player> contributors = virtualBorder.getContributors();
+
+        WorldBorder border = virtualBorder.getBorder();
+        double currentSize = border.getSize();
+        double maxSize = worldSettings.getMaxDiameter();
+        double newSize = Math.min(maxSize, currentSize + virtualBorder.getPendingDiameter());
+        boolean atMaxSize = newSize >= maxSize;
+        if (atMaxSize && Math.abs(currentSize - maxSize) < 0.1) {
+            if (settings.isHardcoreMode()) {
+                killForHardcore(settings, contributors, world, maxSize / 2);
+            }
+            return;
+        }
+
+        int growTime = worldSettings.getGrowTime();
+        virtualBorder.transitionTo(newSize, growTime);
+
+        // Only the players sharing this border are told about it
+        MessageTemplate message = settings.getMessage("border-grow");
+        if (!message.isEmpty() && isAnnounced(settings, currentSize, newSize)
+                && digest.offer(virtualBorder, newSize, settings)) {
+            send(settings, virtualBorder, message.renderSize(newSize / 2));
+        }
+        if (atMaxSize) {
+            MessageTemplate maxMessage = settings.getMessage("border-max");
+            if (!maxMessage.isEmpty()) {
+                send(settings, virtualBorder, maxMessage.renderSize(newSize / 2));
+            }
+            if (settings.isHardcoreMode()) {
+                killForHardcore(settings, contributors, world, newSize / 2);
+            }
+        }
+
+        if (settings.isLogBorderChanges()) {
+            plugin.getLogger().info(String.format(
+                    "Border of %s in %s growing from %.1f to %.1f (radius) over %d seconds (%d hits this tick)",
+                    virtualBorder.getOwner(),
+                    world.getName(),
+                    currentSize / 2,
+                    newSize / 2,
+                    growTime,
+                    contributors.size()
+            ));
+        }
+    }
+
+    /**
+     * Sends the summary of the announcements a busy border's digest held back.
+     */
+    private void sendDigest(Object key, int growths, double diameter) {
+        BorderSettings settings = plugin.getConfigManager().getSettings();
+        MessageTemplate template = settings.getMessage("border-grow-digest");
+        Component message;
+        if (!template.isEmpty()) {
+            message = template.render(diameter / 2, null, Integer.toString(growths));
+        } else {
+            // Configurations from before the digest only have the per-growth message
+            MessageTemplate fallback = settings.getMessage("border-grow");
+            if (fallback.isEmpty()) {
+                return;
+            }
+            message = fallback.renderSize(diameter / 2);
+        }
+
+        if (key instanceof BorderController) {
+            broadcast(settings, ((BorderController) key).getWorld(), message, true);
+        } else if (key instanceof VirtualBorder) {
+            send(settings, (VirtualBorder) key, message);
+        }
+    }
+
+    /**
+     * @return true if a growth from one diameter to another is announced in chat: always in
+     *         chat display mode, otherwise only when it crosses a multiple of the milestone step
+     */
+    private static boolean isAnnounced(BorderSettings settings, double fromDiameter, double toDiameter) {
+        if (settings.getDisplayMode() == DisplayMode.CHAT) {
+            return true;
+        }
+        double step = settings.getMilestoneStepDiameter();
+        return step > 0 && Math.floor(toDiameter / step) > Math.floor(fromDiameter / step);
+    }
+
+    /**
+     * Kills a player who hit the border while it is at its maximum size in hardcore mode.
+     */
+    public void killForHardcore(BorderSettings settings, Player player, World world, double size) {
+        plugin.getTaskScheduler().executeForEntity(player, () -> {
+            if (player.isDead()) {
+                return;
+            }
+            player.setHealth(0);
+            MessageTemplate deathMessage = settings.getMessage("hardcore-death");
+            if (!deathMessage.isEmpty()) {
+                broadcast(settings, world, deathMessage.render(size, player.getName()), false);
+            }
+        });
+    }
+
+    private void killForHardcore(BorderSettings settings, List<Player> players, World world, double size) {
+        for (Player player : players) {
+            killForHardcore(settings, player, world, size);
+        }
+    }
+
+    private void broadcast(BorderSettings settings, World world, Component message, boolean withSound) {
+        NotificationRecipients notificationRecipients = plugin.getNotificationRecipients();
+        Player[] recipients = notificationRecipients.get(world);
+        plugin.getPerfMonitor().countBroadcast(recipients.length);
+        if (recipients.length == 0) {
+            return;
+        }
+        notificationRecipients.getAudience(world).sendMessage(message);
+        if (withSound) {
+            // Sounds are played at each player's position, on the player's own thread
+            for (Player p : recipients) {
+                playNotificationSound(settings, p);
+            }
+        }
+    }
+
+    private void send(BorderSettings settings, VirtualBorder border, Component message) {
+        int recipients = 0;
+        NotificationRecipients notificationRecipients = plugin.getNotificationRecipients();
+        for (Player p : border.getViewers()) {
+            if (notificationRecipients.isRecipient(p)) {
+                p.sendMessage(message);
+                playNotificationSound(settings, p);
+                recipients++;
+            }
+        }
+        plugin.getPerfMonitor().countBroadcast(recipients);
+    }
+
+    private void playNotificationSound(BorderSettings settings, Player player) {
+        Sound sound = settings.getNotificationSound();
+        if (sound != null) {
+            plugin.getTaskScheduler().executeForEntity(player, () ->
+                    player.playSound(player, sound, settings.getNotificationVolume(), settings.getNotificationPitch()));
+        }
+    }
+}
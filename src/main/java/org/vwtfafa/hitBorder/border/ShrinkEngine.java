@@ -0,0 +1,117 @@
+package org.vwtfafa.hitBorder.border;
+
+import org.bukkit.Bukkit;
+import org.bukkit.WorldBorder;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+/**
+ * Shrinks the borders of all worlds with {@code border.shrink-enabled} back towards their
+ * minimum size, driven by a single repeating task. In the virtual border modes every player or
+ * team border of the world is shrunk instead of the world border, which stays at its maximum.
+ * <p>
+ * Every {@code setSize} call sends border packets to all players in the world, so instead of
+ * shrinking in small steps the engine starts one long transition per update interval
+ * ({@code 60 / border.shrink-updates-per-minute} seconds) that covers the whole distance for
+ * that interval. A new transition is only started once the previous one (shrink or growth)
+ * has finished, so shrinking never cancels a growth transition that is still running, and a
+ * growth simply supersedes a running shrink transition. Runs on the main thread, or on the
+ * global region on Folia.
+ */
+public class ShrinkEngine implements Runnable {
+    private static final long CHECK_PERIOD_TICKS = 20L;
+    private static final double MIN_STEP = 0.01;
+
+    private final HitBorder plugin;
+    private TaskScheduler.TaskHandle task;
+
+    public ShrinkEngine(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts the repeating task. Does nothing if it is already running.
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getTaskScheduler().runGlobalTimer(this, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        BorderSettings settings = plugin.getConfigManager().getSettings();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        int currentTick = Bukkit.getCurrentTick();
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            WorldSettings worldSettings = controller.getSettings();
+            if (!worldSettings.isShrinkEnabled()) {
+                continue;
+            }
+            if (worldSettings.getBorderMode() != BorderMode.WORLD) {
+                for (VirtualBorder border : plugin.getVirtualBorderManager().getBorders(controller.getWorld())) {
+                    if (!border.isTransitioning(currentTick)) {
+                        shrink(settings, controller, border);
+                    }
+                }
+            } else if (!controller.isTransitioning(currentTick)) {
+                shrink(settings, controller, null);
+            }
+        }
+    }
+
+    /**
+     * Starts the next shrink transition of a world border or of one virtual border.
+     * @param virtualBorder The virtual border to shrink, or null for the world border
+     */
+    private void shrink(BorderSettings settings, BorderController controller, @Nullable VirtualBorder virtualBorder) {
+        WorldSettings worldSettings = controller.getSettings();
+        WorldBorder border = virtualBorder != null ? virtualBorder.getBorder() : controller.getWorld().getWorldBorder();
+        double currentSize = border.getSize();
+        double minSize = worldSettings.getMinDiameter();
+        if (currentSize - minSize < MIN_STEP) {
+            return;
+        }
+
+        int interval = worldSettings.getShrinkIntervalSeconds();
+        double perSecond = worldSettings.getShrinkAmountDiameter() / 60.0;
+        double newSize = currentSize - perSecond * interval;
+        long seconds = interval;
+        if (newSize <= minSize) {
+            // Last transition: only as long as it takes to reach the minimum at the configured rate
+            newSize = minSize;
+            seconds = Math.max(1L, (long) Math.ceil((currentSize - minSize) / perSecond));
+        }
+
+        if (virtualBorder != null) {
+            virtualBorder.transitionTo(newSize, seconds);
+        } else {
+            controller.transitionTo(newSize, seconds);
+        }
+
+        if (settings.isLogBorderChanges()) {
+            plugin.getLogger().info(String.format(
+                    "Border %sin %s shrinking from %.1f to %.1f (radius) over %d seconds",
+                    virtualBorder != null ? "of " + virtualBorder.getOwner() + " " : "",
+                    controller.getWorld().getName(),
+                    currentSize / 2,
+                    newSize / 2,
+                    seconds
+            ));
+        }
+    }
+}
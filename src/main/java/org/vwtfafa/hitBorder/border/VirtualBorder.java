@@ -0,0 +1,111 @@
+package org.vwtfafa.hitBorder.border;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A player-scoped border of one world in {@code player} or {@code team} mode: a border created
+ * with {@link org.bukkit.Bukkit#createWorldBorder()} and shown to its viewers with
+ * {@link Player#setWorldBorder(WorldBorder)}. Changing its size sends the border packets to its
+ * viewers only. Created and discarded by {@link VirtualBorderManager}; pending growth is guarded
+ * by {@link GrowthAccumulator} like that of a {@link BorderController}, and timed size changes go
+ * through {@link #transitionTo(double, long)} so that growth and shrinking see each other.
+ */
+public final class VirtualBorder {
+    private final World world;
+    // UUID of the player in player mode, team name in team mode
+    private final Object owner;
+    private final WorldBorder border;
+    private final Set<Player> viewers = ConcurrentHashMap.newKeySet();
+
+    // Growth collected during the current tick, applied by GrowthAccumulator
+    private double pendingDiameter;
+    private final List<Player> contributors = new ArrayList<>(2);
+
+    // End of the transition last started through transitionTo
+    private volatile int transitionEndTick = Integer.MIN_VALUE;
+
+    VirtualBorder(World world, Object owner, WorldBorder border) {
+        this.world = world;
+        this.owner = owner;
+        this.border = border;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Object getOwner() {
+        return owner;
+    }
+
+    public WorldBorder getBorder() {
+        return border;
+    }
+
+    /**
+     * @return The online players currently shown this border
+     */
+    public Collection<Player> getViewers() {
+        return Collections.unmodifiableSet(viewers);
+    }
+
+    /**
+     * Starts a smooth transition of this border and records when it ends.
+     * @param diameter The target diameter
+     * @param seconds Length of the transition in seconds (0 applies it immediately)
+     */
+    public void transitionTo(double diameter, long seconds) {
+        border.setSize(diameter, seconds);
+        this.transitionEndTick = Bukkit.getCurrentTick() + (int) Math.min(Integer.MAX_VALUE / 2, seconds * 20);
+    }
+
+    /**
+     * @param currentTick The current server tick
+     * @return true if a transition started through this border has not finished yet
+     */
+    public boolean isTransitioning(int currentTick) {
+        return currentTick < transitionEndTick;
+    }
+
+    void addViewer(Player player) {
+        viewers.add(player);
+    }
+
+    void removeViewer(Player player) {
+        viewers.remove(player);
+    }
+
+    /**
+     * Adds growth for the current tick.
+     * @return true if this was the first contribution since the last flush
+     */
+    boolean addPendingGrowth(Player player, double diameterDelta) {
+        boolean first = contributors.isEmpty();
+        pendingDiameter += diameterDelta;
+        contributors.add(player);
+        return first;
+    }
+
+    double getPendingDiameter() {
+        return pendingDiameter;
+    }
+
+    List<Player> getContributors() {
+        return contributors;
+    }
+
+    void clearPending() {
+        pendingDiameter = 0;
+        contributors.clear();
+    }
+}
@@ -0,0 +1,338 @@
+package org.vwtfafa.hitBorder.border;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.scoreboard.ScoreboardManager;
+import org.bukkit.scoreboard.Team;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link VirtualBorder}s of all worlds in {@code player} or {@code team} mode and
+ * shows every player the border they belong to.
+ * <p>
+ * Borders are stored per world and owner (player UUID or team name), and the border a player
+ * currently views is indexed by UUID, so the damage listener finds it with one map probe. Only
+ * borders with online viewers are kept: when the last viewer leaves, the border is dropped and
+ * its size moves to the saved sizes, which
+ * {@link org.vwtfafa.hitBorder.storage.BorderStateStore} persists and hands back through
+ * {@link #restoreSizes(World, Map)}. A border created for an owner with a saved size starts at
+ * that size. The maps are concurrent because on Folia players are
+ * handled on their region threads.
+ * <p>
+ * The client only collides with the border it is shown, so a repeating task re-resolves every
+ * viewer's team and moves players that ended up outside their border (after a team change or a
+ * teleport) back to the nearest point inside it.
+ */
+public class VirtualBorderManager implements Listener {
+    private static final long CHECK_PERIOD_TICKS = 20L;
+    // Keeps players moved back inside clear of the border edge
+    private static final double EDGE_MARGIN = 1.5;
+
+    private final HitBorder plugin;
+    private final Map<World, Map<Object, VirtualBorder>> borders = new ConcurrentHashMap<>();
+    private final Map<UUID, VirtualBorder> viewing = new ConcurrentHashMap<>();
+    // Saved sizes by world name and owner key, claimed when the owner's border is created
+    private final Map<String, Map<String, Double>> savedSizes = new ConcurrentHashMap<>();
+    private TaskScheduler.TaskHandle task;
+
+    public VirtualBorderManager(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts the repeating check. Does nothing if it is already running.
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getTaskScheduler().runGlobalTimer(this::checkViewers, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        }
+    }
+
+    /**
+     * Stops the check and shows every viewer the world border again.
+     */
+    public void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Map<Object, VirtualBorder> worldBorders : borders.values()) {
+            for (VirtualBorder border : worldBorders.values()) {
+                for (Player player : border.getViewers()) {
+                    player.setWorldBorder(null);
+                }
+            }
+        }
+        viewing.clear();
+    }
+
+    /**
+     * Returns the virtual border a player's hits in a controller's world grow, assigning one if
+     * the player has none yet. Must run on the player's thread.
+     * @param player The player
+     * @param controller The controller of the player's world, not in {@link BorderMode#WORLD} mode
+     * @return The player's virtual border
+     */
+    public VirtualBorder getOrAssign(Player player, BorderController controller) {
+        VirtualBorder current = viewing.get(player.getUniqueId());
+        if (current != null && current.getWorld() == controller.getWorld()) {
+            return current;
+        }
+        return assign(player, controller, resolveOwner(player, controller.getSettings().getBorderMode()));
+    }
+
+    /**
+     * @return The border a player sees in a world: their virtual border, or the world border
+     */
+    public WorldBorder getBorder(Player player, World world) {
+        VirtualBorder current = viewing.get(player.getUniqueId());
+        return current != null && current.getWorld() == world ? current.getBorder() : world.getWorldBorder();
+    }
+
+    /**
+     * @return The virtual borders of a world, empty if it is not in a virtual border mode
+     */
+    public Collection<VirtualBorder> getBorders(World world) {
+        Map<Object, VirtualBorder> worldBorders = borders.get(world);
+        return worldBorders == null ? List.of() : Collections.unmodifiableCollection(worldBorders.values());
+    }
+
+    /**
+     * Hands over saved border sizes of a world; a border created later for one of these owners
+     * starts at its saved size. Sizes must already be within the configured bounds.
+     * @param world The world
+     * @param sizes Diameters by {@link #getOwnerKey(Object) owner key}
+     */
+    public void restoreSizes(World world, Map<String, Double> sizes) {
+        savedSizes.computeIfAbsent(world.getName(), name -> new ConcurrentHashMap<>()).putAll(sizes);
+    }
+
+    /**
+     * @return The current diameters of a world's virtual borders by owner key, including saved
+     *         sizes whose owners have not been seen since the restore
+     */
+    public Map<String, Double> getSizes(World world) {
+        Map<String, Double> sizes = new HashMap<>();
+        Map<String, Double> saved = savedSizes.get(world.getName());
+        if (saved != null) {
+            sizes.putAll(saved);
+        }
+        for (VirtualBorder border : getBorders(world)) {
+            sizes.put(getOwnerKey(border.getOwner()), border.getBorder().getSize());
+        }
+        return sizes;
+    }
+
+    /**
+     * @return A string identifying a border owner in saved state
+     */
+    public static String getOwnerKey(Object owner) {
+        return owner instanceof UUID ? "player:" + owner : "team:" + owner;
+    }
+
+    /**
+     * Shows a player the border matching their world, mode and team. Must run on the player's thread.
+     * @param player The player
+     */
+    public void update(Player player) {
+        BorderController controller = plugin.getBorderManager().get(player.getWorld());
+        if (controller == null || controller.getSettings().getBorderMode() == BorderMode.WORLD) {
+            detach(player);
+            return;
+        }
+        Object owner = resolveOwner(player, controller.getSettings().getBorderMode());
+        VirtualBorder current = viewing.get(player.getUniqueId());
+        if (current == null || current.getWorld() != controller.getWorld() || !current.getOwner().equals(owner)) {
+            assign(player, controller, owner);
+        }
+    }
+
+    private VirtualBorder assign(Player player, BorderController controller, Object owner) {
+        VirtualBorder previous = viewing.get(player.getUniqueId());
+        if (previous != null) {
+            release(previous, player);
+        }
+        // The viewer is added inside compute, so release never evicts a border that gains one
+        VirtualBorder border = borders
+                .computeIfAbsent(controller.getWorld(), world -> new ConcurrentHashMap<>())
+                .compute(owner, (o, existing) -> {
+                    VirtualBorder b = existing != null ? existing : create(controller, o);
+                    b.addViewer(player);
+                    return b;
+                });
+        viewing.put(player.getUniqueId(), border);
+        player.setWorldBorder(border.getBorder());
+        return border;
+    }
+
+    private void detach(Player player) {
+        VirtualBorder previous = viewing.remove(player.getUniqueId());
+        if (previous != null) {
+            release(previous, player);
+            player.setWorldBorder(null);
+        }
+    }
+
+    /**
+     * Removes a viewer from a border. A border left without viewers is dropped and its size
+     * kept with the saved sizes, so only borders of online players are shrunk and displayed,
+     * and the owner gets the same size back when they return.
+     */
+    private void release(VirtualBorder border, Player player) {
+        Map<Object, VirtualBorder> worldBorders = borders.get(border.getWorld());
+        if (worldBorders == null) {
+            border.removeViewer(player);
+            return;
+        }
+        worldBorders.computeIfPresent(border.getOwner(), (owner, current) -> {
+            border.removeViewer(player);
+            if (current != border || !border.getViewers().isEmpty()) {
+                return current;
+            }
+            savedSizes.computeIfAbsent(border.getWorld().getName(), name -> new ConcurrentHashMap<>())
+                    .put(getOwnerKey(owner), border.getBorder().getSize());
+            return null;
+        });
+    }
+
+    private VirtualBorder create(BorderController controller, Object owner) {
+        WorldSettings worldSettings = controller.getSettings();
+        double size = worldSettings.getInitialDiameter();
+        Map<String, Double> saved = savedSizes.get(controller.getWorld().getName());
+        Double savedSize = saved == null ? null : saved.remove(getOwnerKey(owner));
+        if (savedSize != null) {
+            size = Math.max(worldSettings.getMinDiameter(), Math.min(worldSettings.getMaxDiameter(), savedSize));
+        }
+        WorldBorder border = Bukkit.createWorldBorder();
+        border.setCenter(worldSettings.getSpawnX(), worldSettings.getSpawnZ());
+        border.setSize(size, 0);
+        border.setDamageAmount(0);
+        border.setDamageBuffer(0);
+        border.setWarningDistance(worldSettings.getWarningDistance());
+        return new VirtualBorder(controller.getWorld(), owner, border);
+    }
+
+    /**
+     * @return The name of the player's scoreboard team in team mode, otherwise their UUID
+     */
+    private static Object resolveOwner(Player player, BorderMode mode) {
+        if (mode == BorderMode.TEAM) {
+            try {
+                ScoreboardManager manager = Bukkit.getScoreboardManager();
+                Team team = manager == null ? null : manager.getMainScoreboard().getEntryTeam(player.getName());
+                if (team != null) {
+                    return team.getName();
+                }
+            } catch (UnsupportedOperationException e) {
+                // Scoreboards are not available on Folia; every player keeps a border of their own
+            }
+        }
+        return player.getUniqueId();
+    }
+
+    /**
+     * Schedules the team and position check of every viewer on its own thread.
+     */
+    private void checkViewers() {
+        if (!plugin.getConfigManager().getSettings().isEnabled()) {
+            return;
+        }
+        for (Map<Object, VirtualBorder> worldBorders : borders.values()) {
+            for (VirtualBorder border : worldBorders.values()) {
+                for (Player player : border.getViewers()) {
+                    plugin.getTaskScheduler().executeForEntity(player, () -> check(player));
+                }
+            }
+        }
+    }
+
+    private void check(Player player) {
+        if (!player.isOnline()) {
+            return;
+        }
+        update(player);
+        VirtualBorder current = viewing.get(player.getUniqueId());
+        if (current == null) {
+            return;
+        }
+        WorldBorder border = current.getBorder();
+        Location location = player.getLocation();
+        if (border.isInside(location)) {
+            return;
+        }
+
+        Location center = border.getCenter();
+        double half = Math.max(0.5, border.getSize() / 2 - EDGE_MARGIN);
+        double x = Math.max(center.getX() - half, Math.min(center.getX() + half, location.getX()));
+        double z = Math.max(center.getZ() - half, Math.min(center.getZ() + half, location.getZ()));
+        Location target = new Location(location.getWorld(), x, location.getY(), z, location.getYaw(), location.getPitch());
+        plugin.getTaskScheduler()
+                .callAtLocation(target, () -> target.getWorld().getHighestBlockYAt(target.getBlockX(), target.getBlockZ()) + 1)
+                .thenAccept(y -> {
+                    target.setY(y);
+                    plugin.getTaskScheduler().executeForEntity(player, () -> player.teleportAsync(target));
+                });
+    }
+
+    /**
+     * Re-evaluates every online player after a new settings snapshot was published and drops
+     * the borders of worlds that are no longer in a virtual mode.
+     * @param settings The new settings
+     */
+    public void applySettings(BorderSettings settings) {
+        borders.keySet().removeIf(world -> {
+            WorldSettings worldSettings = settings.getWorld(world.getName());
+            return worldSettings == null || worldSettings.getBorderMode() == BorderMode.WORLD;
+        });
+        savedSizes.keySet().removeIf(worldName -> {
+            WorldSettings worldSettings = settings.getWorld(worldName);
+            return worldSettings == null || worldSettings.getBorderMode() == BorderMode.WORLD;
+        });
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            plugin.getTaskScheduler().executeForEntity(player, () -> update(player));
+        }
+    }
+
+    // Before the spawn listener, so the join message already shows the player's own border
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        update(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        detach(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        borders.remove(event.getWorld());
+    }
+}
@@ -1,7 +1,10 @@
 package org.vwtfafa.hitBorder.command;
 
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -9,10 +12,59 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.config.BorderSettings;
 import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.perf.DamageOutcome;
+import org.vwtfafa.hitBorder.perf.LatencyHistogram;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
+import org.vwtfafa.hitBorder.util.LuckPermsHook;
+import org.vwtfafa.hitBorder.util.NumberFormatter;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class HitBorderCommand implements CommandExecutor {
+    // Fixed output is built once; only the values are rendered per command
+    private static final Component STATUS_HEADER = header("HitBorder Status");
+    private static final Component PERF_HEADER = header("HitBorder Performance");
+    private static final Component LABEL_WORLD = label("World: ");
+    private static final Component LABEL_SIZE = label("Current border size: ");
+    private static final Component LABEL_MIN = label("Min border size: ");
+    private static final Component LABEL_MAX = label("Max border size: ");
+    private static final Component LABEL_GROWTH = label("Border growth per damage: ");
+    private static final Component LABEL_ENABLED = label("Plugin enabled: ");
+    private static final Component LABEL_HARDCORE = label("Hardcore mode: ");
+    private static final Component LABEL_LUCKPERMS = label("LuckPerms group cache: ");
+    private static final Component LABEL_RECORDING = label("Recording for: ");
+    private static final Component LABEL_OUTCOMES = label("Damage decisions: ");
+    private static final Component YES = Component.text("Yes", NamedTextColor.GREEN);
+    private static final Component NO = Component.text("No", NamedTextColor.RED);
+    private static final Component ENABLED = Component.text("Enabled", NamedTextColor.RED);
+    private static final Component DISABLED = Component.text("Disabled", NamedTextColor.GREEN);
+    private static final Component RELOAD_FAILED = Component.text(
+            "The configuration was not reloaded; see the console or wait for the running reload.", NamedTextColor.RED);
+    private static final Component PERF_RESET = Component.text("Performance statistics have been reset.", NamedTextColor.GREEN);
+    private static final Component PERF_DISABLED = Component.text(
+            "Instrumentation is disabled. Set performance.instrumentation: true and reload.", NamedTextColor.RED);
+    private static final Component HELP = LegacyComponentSerializer.legacyAmpersand().deserialize(String.join("\n",
+            "&6=== &eHitBorder Commands &6===",
+            "&e/hitborder help &7- Show this help message",
+            "&e/hitborder status [world] &7- Show current border status",
+            "&e/hitborder version &7- Show plugin version"));
+    private static final Component ADMIN_HELP = LegacyComponentSerializer.legacyAmpersand().deserialize(String.join("\n",
+            "&6=== &eAdmin Commands &6===",
+            "&e/hitborder reload &7- Reload configuration",
+            "&e/hitborder toggle &7- Toggle the border growth",
+            "&e/hitborder setborder <size> [world] &7- Set border size",
+            "&e/hitborder set <size> [world] &7- Set border size",
+            "&e/hitborder grow <amount> [world] &7- Grow or shrink border",
+            "&e/hitborder hardcore [on|off] &7- Toggle hardcore mode",
+            "&e/hitborder setspawn &7- Set spawn to your location",
+            "&e/hitborder perf [reset] &7- Show handler timings"));
+
     private final HitBorder plugin;
     private final ConfigManager configManager;
 
@@ -23,6 +75,16 @@ public class HitBorderCommand implements CommandExecutor {
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
+        PerfMonitor perfMonitor = plugin.getPerfMonitor();
+        long start = perfMonitor.start();
+        try {
+            return dispatch(sender, label, args);
+        } finally {
+            perfMonitor.stop(PerfMonitor.Handler.COMMAND, start);
+        }
+    }
+
+    private boolean dispatch(CommandSender sender, String label, String[] args) {
         if (args.length == 0 || args[0].equalsIgnoreCase("help")) {
             sendHelp(sender);
             return true;
@@ -32,21 +94,21 @@ public class HitBorderCommand implements CommandExecutor {
         
         switch (subCommand) {
             case "reload":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
                 return handleReload(sender);
                 
             case "toggle":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
                 return handleToggle(sender);
                 
             case "setborder":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
@@ -56,14 +118,14 @@ public class HitBorderCommand implements CommandExecutor {
                 }
                 try {
                     double size = Double.parseDouble(args[1]);
-                    return handleSetBorder(sender, size);
+                    return handleSetBorder(sender, size, args);
                 } catch (NumberFormatException e) {
                     sendMessage(sender, "invalid-number");
                     return true;
                 }
 
             case "set":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
@@ -73,14 +135,14 @@ public class HitBorderCommand implements CommandExecutor {
                 }
                 try {
                     double size = Double.parseDouble(args[1]);
-                    return handleSetBorder(sender, size);
+                    return handleSetBorder(sender, size, args);
                 } catch (NumberFormatException e) {
                     sendMessage(sender, "invalid-number");
                     return true;
                 }
 
             case "grow":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
@@ -90,24 +152,24 @@ public class HitBorderCommand implements CommandExecutor {
                 }
                 try {
                     double amount = Double.parseDouble(args[1]);
-                    return handleGrow(sender, amount);
+                    return handleGrow(sender, amount, args);
                 } catch (NumberFormatException e) {
                     sendMessage(sender, "invalid-number");
                     return true;
                 }
                 
             case "status":
-                return handleStatus(sender);
+                return handleStatus(sender, args);
 
             case "hardcore":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
                 return handleHardcore(sender, args);
 
             case "setspawn":
-                if (!sender.hasPermission("hitborder.admin")) {
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
                     sendMessage(sender, "no-permission");
                     return true;
                 }
@@ -115,6 +177,13 @@ public class HitBorderCommand implements CommandExecutor {
 
             case "version":
                 return handleVersion(sender);
+
+            case "perf":
+                if (!sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
+                    sendMessage(sender, "no-permission");
+                    return true;
+                }
+                return handlePerf(sender, args);
                 
             default:
                 sendHelp(sender);
@@ -123,8 +192,14 @@ public class HitBorderCommand implements CommandExecutor {
     }
     
     private boolean handleReload(CommandSender sender) {
-        configManager.reload();
-        sendMessage(sender, "reloaded");
+        // The file is read in the background; the sender hears back once it is applied
+        plugin.reloadPlugin().thenAccept(reloaded -> {
+            if (reloaded) {
+                sendMessage(sender, "reloaded");
+            } else {
+                sender.sendMessage(RELOAD_FAILED);
+            }
+        });
         return true;
     }
     
@@ -137,86 +212,97 @@ public class HitBorderCommand implements CommandExecutor {
         return true;
     }
     
-    private boolean handleSetBorder(CommandSender sender, double size) {
-        World world = Bukkit.getWorld(configManager.getWorldName());
-        if (world == null) {
+    private boolean handleSetBorder(CommandSender sender, double size, String[] args) {
+        BorderSettings settings = configManager.getSettings();
+        BorderController controller = resolveWorld(sender, args, 2);
+        if (controller == null) {
             sendMessage(sender, "world-not-found");
             return true;
         }
         
         // Validate size
-        if (size < configManager.getMinBorderSize()) {
-            sendMessage(sender, "border-too-small", String.valueOf(configManager.getMinBorderSize()));
+        double minSize = controller.getSettings().getMinDiameter() / 2;
+        double maxSize = controller.getSettings().getMaxDiameter() / 2;
+        if (size < minSize) {
+            sendMessage(sender, "border-too-small", String.valueOf(minSize));
             return true;
         }
         
-        if (size > configManager.getMaxBorderSize()) {
-            sendMessage(sender, "border-too-big", String.valueOf(configManager.getMaxBorderSize()));
+        if (size > maxSize) {
+            sendMessage(sender, "border-too-big", String.valueOf(maxSize));
             return true;
         }
         
         // Set the new border size
-        configManager.setBorderSize(world, size);
-        sendMessage(sender, "border-set", String.format("%.1f", size));
+        configManager.setBorderSize(controller, size);
+        sendMessage(sender, "border-set", size, NumberFormatter.format1(size));
         
         // Notify all players
-        String message = configManager.getMessage("border-set-broadcast")
-            .replace("%size%", String.format("%.1f", size));
-        if (sender instanceof Player) {
-            message = message.replace("%player%", sender.getName());
-        } else {
-            message = message.replace("by %player%", "by Console");
-        }
+        String playerName = sender instanceof Player ? sender.getName() : "Console";
+        Component finalMessage = settings.getMessage("border-set-broadcast").render(size, playerName);
         
-        String finalMessage = ChatColor.translateAlternateColorCodes('&', 
-            configManager.getMessage("prefix") + message);
-        
-        Bukkit.getOnlinePlayers().forEach(p -> p.sendMessage(finalMessage));
+        Audience.audience(Bukkit.getOnlinePlayers()).sendMessage(finalMessage);
         return true;
     }
     
-    private boolean handleStatus(CommandSender sender) {
-        World world = Bukkit.getWorld(configManager.getWorldName());
-        if (world == null) {
+    private boolean handleStatus(CommandSender sender, String[] args) {
+        BorderSettings settings = configManager.getSettings();
+        BorderController controller = resolveWorld(sender, args, 1);
+        if (controller == null) {
             sendMessage(sender, "world-not-found");
             return true;
         }
+        World world = controller.getWorld();
+        WorldSettings worldSettings = controller.getSettings();
         
         double currentSize = world.getWorldBorder().getSize() / 2; // Convert to radius
         
-        sender.sendMessage(ChatColor.GOLD + "=== " + ChatColor.YELLOW + "HitBorder Status" + ChatColor.GOLD + " ===");
-        sender.sendMessage(ChatColor.YELLOW + "Current border size: " + ChatColor.WHITE + String.format("%.1f blocks", currentSize));
-        sender.sendMessage(ChatColor.YELLOW + "Min border size: " + ChatColor.WHITE + configManager.getMinBorderSize() + " blocks");
-        sender.sendMessage(ChatColor.YELLOW + "Max border size: " + ChatColor.WHITE + configManager.getMaxBorderSize() + " blocks");
-        sender.sendMessage(ChatColor.YELLOW + "Border growth per damage: " + ChatColor.WHITE + configManager.getBorderGrowAmount() + " blocks");
-        sender.sendMessage(ChatColor.YELLOW + "Plugin enabled: " + (configManager.isEnabled() ? ChatColor.GREEN + "Yes" : ChatColor.RED + "No"));
-        sender.sendMessage(ChatColor.YELLOW + "Hardcore mode: " + (configManager.isHardcoreMode() ? ChatColor.RED + "Enabled" : ChatColor.GREEN + "Disabled"));
+        Component.Builder status = Component.text()
+            .append(STATUS_HEADER)
+            .append(Component.newline()).append(LABEL_WORLD).append(value(world.getName()))
+            .append(Component.text(" (border worlds: " + String.join(", ", plugin.getBorderManager().getWorldNames()) + ")",
+                NamedTextColor.GRAY))
+            .append(Component.newline()).append(LABEL_SIZE).append(value(String.format("%.1f blocks", currentSize)))
+            .append(Component.newline()).append(LABEL_MIN).append(value(worldSettings.getMinDiameter() / 2 + " blocks"))
+            .append(Component.newline()).append(LABEL_MAX).append(value(worldSettings.getMaxDiameter() / 2 + " blocks"))
+            .append(Component.newline()).append(LABEL_GROWTH).append(value(worldSettings.getGrowAmountDiameter() / 2 + " blocks"))
+            .append(Component.newline()).append(LABEL_ENABLED).append(settings.isEnabled() ? YES : NO)
+            .append(Component.newline()).append(LABEL_HARDCORE).append(settings.isHardcoreMode() ? ENABLED : DISABLED);
+        LuckPermsHook luckPermsHook = plugin.getLuckPermsHook();
+        if (luckPermsHook != null && luckPermsHook.isAvailable()) {
+            status.append(Component.newline()).append(LABEL_LUCKPERMS)
+                .append(value(luckPermsHook.getCacheHits() + " hits, " + luckPermsHook.getCacheMisses() + " misses"));
+        }
+        sender.sendMessage(status.build());
         
         return true;
     }
 
-    private boolean handleGrow(CommandSender sender, double amount) {
-        World world = Bukkit.getWorld(configManager.getWorldName());
-        if (world == null) {
+    private boolean handleGrow(CommandSender sender, double amount, String[] args) {
+        BorderController controller = resolveWorld(sender, args, 2);
+        if (controller == null) {
             sendMessage(sender, "world-not-found");
             return true;
         }
+        World world = controller.getWorld();
 
         double currentSize = world.getWorldBorder().getSize() / 2;
         double newSize = currentSize + amount;
+        double minSize = controller.getSettings().getMinDiameter() / 2;
+        double maxSize = controller.getSettings().getMaxDiameter() / 2;
 
-        if (newSize < configManager.getMinBorderSize()) {
-            sendMessage(sender, "border-too-small", String.valueOf(configManager.getMinBorderSize()));
+        if (newSize < minSize) {
+            sendMessage(sender, "border-too-small", String.valueOf(minSize));
             return true;
         }
 
-        if (newSize > configManager.getMaxBorderSize()) {
-            sendMessage(sender, "border-too-big", String.valueOf(configManager.getMaxBorderSize()));
+        if (newSize > maxSize) {
+            sendMessage(sender, "border-too-big", String.valueOf(maxSize));
             return true;
         }
 
-        configManager.setBorderSize(world, newSize);
-        sendMessage(sender, "border-grew", String.format("%.1f", amount), String.format("%.1f", newSize));
+        configManager.setBorderSize(controller, newSize);
+        sendMessage(sender, "border-grew", newSize, NumberFormatter.format1(amount), NumberFormatter.format1(newSize));
         return true;
     }
 
@@ -248,8 +334,11 @@ public class HitBorderCommand implements CommandExecutor {
         }
 
         Player player = (Player) sender;
+        if (plugin.getBorderManager().get(player.getWorld()) == null) {
+            sendMessage(sender, "world-not-found");
+            return true;
+        }
         configManager.setSpawnLocation(player.getLocation());
-        plugin.getBlockBreakListener().reload();
         sendMessage(sender, "spawn-set");
         return true;
     }
@@ -259,46 +348,114 @@ public class HitBorderCommand implements CommandExecutor {
         return true;
     }
     
-    private void sendHelp(CommandSender sender) {
-        java.util.List<String> helpMessages = new java.util.ArrayList<>();
-        helpMessages.add("&6=== &eHitBorder Commands &6===");
-        helpMessages.add("&e/hitborder help &7- Show this help message");
-        helpMessages.add("&e/hitborder status &7- Show current border status");
-        helpMessages.add("&e/hitborder version &7- Show plugin version");
-
-        if (sender.hasPermission("hitborder.admin")) {
-            helpMessages.add("&6=== &eAdmin Commands &6===");
-            helpMessages.add("&e/hitborder reload &7- Reload configuration");
-            helpMessages.add("&e/hitborder toggle &7- Toggle the border growth");
-            helpMessages.add("&e/hitborder setborder <size> &7- Set border size");
-            helpMessages.add("&e/hitborder set <size> &7- Set border size");
-            helpMessages.add("&e/hitborder grow <amount> &7- Grow or shrink border");
-            helpMessages.add("&e/hitborder hardcore [on|off] &7- Toggle hardcore mode");
-            helpMessages.add("&e/hitborder setspawn &7- Set spawn to your location");
+    private boolean handlePerf(CommandSender sender, String[] args) {
+        PerfMonitor perfMonitor = plugin.getPerfMonitor();
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            perfMonitor.reset();
+            sender.sendMessage(PERF_RESET);
+            return true;
+        }
+
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - perfMonitor.getResetAt());
+        Component.Builder report = Component.text().append(PERF_HEADER);
+        if (!perfMonitor.isEnabled()) {
+            report.append(Component.newline()).append(PERF_DISABLED);
+        }
+        report.append(Component.newline()).append(LABEL_RECORDING).append(value(seconds + "s"));
+        for (PerfMonitor.Handler handler : PerfMonitor.Handler.values()) {
+            LatencyHistogram.Snapshot snapshot = perfMonitor.getSnapshot(handler);
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            report.append(Component.newline())
+                .append(label(handler.getDisplayName() + ": "))
+                .append(value(snapshot.getCount() + " calls"))
+                .append(Component.text(", p50 " + formatNanos(snapshot.getPercentile(0.5))
+                    + ", p99 " + formatNanos(snapshot.getPercentile(0.99))
+                    + ", max " + formatNanos(snapshot.getMax()), NamedTextColor.GRAY));
+        }
+
+        StringBuilder outcomes = new StringBuilder();
+        for (Map.Entry<DamageOutcome, Long> entry : perfMonitor.getOutcomes().entrySet()) {
+            if (entry.getValue() > 0) {
+                outcomes.append(outcomes.length() == 0 ? "" : ", ")
+                    .append(entry.getKey().getDescription()).append(' ').append(entry.getValue());
+            }
+        }
+        if (outcomes.length() > 0) {
+            report.append(Component.newline()).append(LABEL_OUTCOMES).append(value(outcomes.toString()));
         }
+        sender.sendMessage(report.build());
+        return true;
+    }
 
-        for (String message : helpMessages) {
-            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
         }
+        if (nanos < 1_000_000) {
+            return NumberFormatter.format1(nanos / 1_000.0) + "µs";
+        }
+        return NumberFormatter.format1(nanos / 1_000_000.0) + "ms";
+    }
+
+    private void sendHelp(CommandSender sender) {
+        sender.sendMessage(HELP);
+        if (sender.hasPermission(BorderSettings.ADMIN_PERMISSION)) {
+            sender.sendMessage(ADMIN_HELP);
+        }
+    }
+
+    private static Component header(String title) {
+        return Component.text()
+            .append(Component.text("=== ", NamedTextColor.GOLD))
+            .append(Component.text(title, NamedTextColor.YELLOW))
+            .append(Component.text(" ===", NamedTextColor.GOLD))
+            .build();
+    }
+
+    private static Component label(String text) {
+        return Component.text(text, NamedTextColor.YELLOW);
+    }
+
+    private static Component value(String text) {
+        return Component.text(text, NamedTextColor.WHITE);
     }
     
+    /**
+     * Resolves the border world a command applies to: the explicit world argument if present,
+     * otherwise the sender's own world if it is a border world, otherwise the primary world.
+     * @return The controller, or null if the world is unknown or not loaded
+     */
+    private BorderController resolveWorld(CommandSender sender, String[] args, int index) {
+        if (args.length > index) {
+            return plugin.getBorderManager().getByName(args[index]);
+        }
+        if (sender instanceof Player) {
+            BorderController own = plugin.getBorderManager().get(((Player) sender).getWorld());
+            if (own != null) {
+                return own;
+            }
+        }
+        return plugin.getBorderManager().getPrimary();
+    }
+
     private void sendMessage(CommandSender sender, String key, String... replacements) {
-        String message = configManager.getMessage(key);
+        sendMessage(sender, key, Double.NaN, replacements);
+    }
+
+    private void sendMessage(CommandSender sender, String key, double size, String... replacements) {
+        BorderSettings settings = configManager.getSettings();
+        MessageTemplate message = settings.getMessage(key);
         
         if (message.isEmpty()) {
-            message = "&cMessage not found: " + key;
+            sender.sendMessage(Component.textOfChildren(settings.getMessages().getPrefix(),
+                Component.text("Message not found: " + key, NamedTextColor.RED)));
+            return;
         }
         
-        // Apply replacements
-        for (int i = 0; i < replacements.length; i++) {
-            message = message.replace("%s" + (i + 1), replacements[i]);
-        }
-        
-        // Add prefix and color codes
-        message = configManager.getMessage("prefix") + message;
-        message = ChatColor.translateAlternateColorCodes('&', message);
-        
-        sender.sendMessage(message);
+        // Prefix, colours and placeholder slots are precompiled in the template
+        sender.sendMessage(message.render(size, sender.getName(), replacements));
     }
 
 }
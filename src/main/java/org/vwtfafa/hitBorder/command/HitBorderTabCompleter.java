@@ -4,6 +4,7 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.jetbrains.annotations.NotNull;
+import org.vwtfafa.hitBorder.HitBorder;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -11,6 +12,12 @@ import java.util.List;
 import java.util.Locale;
 
 public class HitBorderTabCompleter implements TabCompleter {
+    private final HitBorder plugin;
+
+    public HitBorderTabCompleter(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender,
                                       @NotNull Command command,
@@ -33,6 +40,7 @@ public class HitBorderTabCompleter implements TabCompleter {
                 options.add("grow");
                 options.add("hardcore");
                 options.add("setspawn");
+                options.add("perf");
             }
             return filterPrefix(options, args[0]);
         }
@@ -41,6 +49,17 @@ public class HitBorderTabCompleter implements TabCompleter {
             return filterPrefix(List.of("on", "off"), args[1]);
         }
 
+        if (args.length == 2 && args[0].equalsIgnoreCase("perf")) {
+            return filterPrefix(List.of("reset"), args[1]);
+        }
+
+        // Optional world argument
+        String sub = args[0].toLowerCase(Locale.ROOT);
+        if ((args.length == 2 && sub.equals("status"))
+                || (args.length == 3 && (sub.equals("setborder") || sub.equals("set") || sub.equals("grow")))) {
+            return filterPrefix(plugin.getBorderManager().getWorldNames(), args[args.length - 1]);
+        }
+
         return Collections.emptyList();
     }
 
@@ -0,0 +1,19 @@
+package org.vwtfafa.hitBorder.config;
+
+/**
+ * Whose border a hit grows, configured by {@code border.mode}.
+ */
+public enum BorderMode {
+    /**
+     * Every player shares the world's border.
+     */
+    WORLD,
+    /**
+     * Every player has a virtual border of their own that only their own hits grow.
+     */
+    PLAYER,
+    /**
+     * The members of a scoreboard team share a virtual border; players without a team get their own.
+     */
+    TEAM
+}
@@ -0,0 +1,519 @@
+package org.vwtfafa.hitBorder.config;
+
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.message.Messages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, fully validated snapshot of the plugin configuration.
+ * <p>
+ * A new instance is compiled by {@link ConfigManager#loadConfig()} and published with a single
+ * atomic swap, so event handlers can read one consistent snapshot per event without touching
+ * the underlying {@link FileConfiguration}. Border and spawn values are kept per world in
+ * {@link WorldSettings}; everything else applies to all border worlds.
+ */
+public final class BorderSettings {
+    public static final String NOTIFY_PERMISSION = "hitborder.notify";
+    public static final String BYPASS_PERMISSION = "hitborder.bypass";
+    public static final String SPAWN_BYPASS_PERMISSION = "hitborder.spawn.bypass";
+    public static final String ADMIN_PERMISSION = "hitborder.admin";
+
+    private static final int MAX_SAFE_SPAWN_POOL_SIZE = 64;
+    private static final int MAX_DISPLAY_REFRESH_TICKS = 200;
+    private static final int MAX_DIGEST_INTERVAL_SECONDS = 300;
+    private static final String DEFAULT_DISPLAY_FORMAT = "&eBorder: &6%size% &7/ &6%s1 &7blocks";
+
+    private final boolean enabled;
+    private final String worldName;
+    private final boolean hardcoreMode;
+    private final boolean affectOps;
+
+    private final Map<String, WorldSettings> worlds;
+
+    private final DamageWeights damageWeights;
+
+    @Nullable
+    private final Sound notificationSound;
+    private final float notificationVolume;
+    private final float notificationPitch;
+    private final boolean joinMessageEnabled;
+
+    private final DisplayMode displayMode;
+    private final int displayRefreshTicks;
+    private final MessageTemplate displayFormat;
+    private final BossBar.Color bossBarColor;
+    private final double milestoneStepDiameter;
+    private final boolean digestEnabled;
+    private final int digestThreshold;
+    private final int digestIntervalTicks;
+
+    private final boolean luckPermsEnabled;
+    private final List<String> notifyGroups;
+
+    private final Messages messages;
+
+    private final boolean debugEnabled;
+    private final boolean logDamageEvents;
+    private final boolean logBorderChanges;
+
+    private final int saveIntervalMinutes;
+    private final int safeSpawnPoolSize;
+    private final boolean instrumentationEnabled;
+    private final boolean metricsEndpointEnabled;
+    private final String metricsEndpointHost;
+    private final int metricsEndpointPort;
+
+    private BorderSettings(Builder b) {
+        this.enabled = b.enabled;
+        this.worldName = b.worldName;
+        this.hardcoreMode = b.hardcoreMode;
+        this.affectOps = b.affectOps;
+        this.worlds = b.worlds;
+        this.damageWeights = b.damageWeights;
+        this.notificationSound = b.notificationSound;
+        this.notificationVolume = b.notificationVolume;
+        this.notificationPitch = b.notificationPitch;
+        this.joinMessageEnabled = b.joinMessageEnabled;
+        this.displayMode = b.displayMode;
+        this.displayRefreshTicks = b.displayRefreshTicks;
+        this.displayFormat = b.displayFormat;
+        this.bossBarColor = b.bossBarColor;
+        this.milestoneStepDiameter = b.milestoneStepDiameter;
+        this.digestEnabled = b.digestEnabled;
+        this.digestThreshold = b.digestThreshold;
+        this.digestIntervalTicks = b.digestIntervalTicks;
+        this.luckPermsEnabled = b.luckPermsEnabled;
+        this.notifyGroups = b.notifyGroups;
+        this.messages = b.messages;
+        this.debugEnabled = b.debugEnabled;
+        this.logDamageEvents = b.logDamageEvents;
+        this.logBorderChanges = b.logBorderChanges;
+        this.saveIntervalMinutes = b.saveIntervalMinutes;
+        this.safeSpawnPoolSize = b.safeSpawnPoolSize;
+        this.instrumentationEnabled = b.instrumentationEnabled;
+        this.metricsEndpointEnabled = b.metricsEndpointEnabled;
+        this.metricsEndpointHost = b.metricsEndpointHost;
+        this.metricsEndpointPort = b.metricsEndpointPort;
+    }
+
+    /**
+     * Compiles a settings snapshot from the given configuration, clamping every value into its
+     * valid range and resolving sounds, colours and damage causes up front.
+     * @param config The loaded configuration
+     * @param logger Logger used to report invalid entries
+     * @return The compiled settings
+     * @throws IllegalArgumentException if the configuration is unusable (e.g. empty world name)
+     */
+    public static BorderSettings load(FileConfiguration config, Logger logger) {
+        Builder b = new Builder();
+
+        // Game settings
+        b.enabled = config.getBoolean("enabled", true);
+        b.hardcoreMode = config.getBoolean("game.hardcore", false);
+        b.affectOps = config.getBoolean("game.affect-ops", true);
+        b.joinMessageEnabled = config.getBoolean("game.join-message.enabled", false);
+
+        String worldName = config.getString("world", "world").trim();
+        if (worldName.isEmpty()) {
+            throw new IllegalArgumentException("World name cannot be empty");
+        }
+        b.worldName = worldName;
+
+        // Per-world border and spawn settings; the primary world uses the top-level sections
+        Map<String, WorldSettings> worlds = new LinkedHashMap<>();
+        worlds.put(worldName, WorldSettings.load(worldName, config, null, logger));
+        ConfigurationSection worldsSection = config.getConfigurationSection("worlds");
+        if (worldsSection != null) {
+            for (String name : worldsSection.getKeys(false)) {
+                if (name.equals(worldName)) {
+                    logger.warning("worlds." + name + " duplicates the primary world and is ignored");
+                    continue;
+                }
+                worlds.put(name, WorldSettings.load(name, config, worldsSection.getConfigurationSection(name), logger));
+            }
+        }
+        b.worlds = Collections.unmodifiableMap(worlds);
+
+        b.damageWeights = DamageWeights.load(config, "game.damage-types", logger);
+
+        // Notification sound
+        if (config.getBoolean("game.notification-sound.enabled", true)) {
+            String soundName = config.getString("game.notification-sound.name", "BLOCK_NOTE_BLOCK_PLING");
+            try {
+                b.notificationSound = Sound.valueOf(soundName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid notification sound configured: " + soundName);
+            }
+        }
+        b.notificationVolume = (float) config.getDouble("game.notification-sound.volume", 1.0);
+        b.notificationPitch = (float) config.getDouble("game.notification-sound.pitch", 1.2);
+
+        // Border display; chat and sound are kept for milestones unless the mode is chat
+        b.displayMode = parseEnum(DisplayMode.class, config.getString("game.display.mode", "bossbar"),
+                DisplayMode.BOSSBAR, "display mode", logger);
+        b.displayRefreshTicks = Math.max(1, Math.min(MAX_DISPLAY_REFRESH_TICKS, config.getInt("game.display.refresh-ticks", 10)));
+        b.displayFormat = MessageTemplate.compile(Component.empty(),
+                config.getString("game.display.format", DEFAULT_DISPLAY_FORMAT));
+        b.bossBarColor = parseEnum(BossBar.Color.class, config.getString("game.display.bossbar-color", "yellow"),
+                BossBar.Color.YELLOW, "boss bar color", logger);
+        b.milestoneStepDiameter = Math.max(0.0, config.getDouble("game.display.milestone-step", 0.0)) * 2;
+
+        // Growth announcements of busy borders are summarised once per interval
+        b.digestEnabled = config.getBoolean("game.digest.enabled", true);
+        b.digestThreshold = Math.max(1, config.getInt("game.digest.threshold", 5));
+        b.digestIntervalTicks = Math.max(1, Math.min(MAX_DIGEST_INTERVAL_SECONDS, config.getInt("game.digest.interval", 10))) * 20;
+
+        // Integrations
+        b.luckPermsEnabled = config.getBoolean("integrations.luckperms.enabled", true);
+        List<String> groups = new ArrayList<>();
+        for (String group : config.getStringList("integrations.luckperms.notify-groups")) {
+            if (group != null && !group.isBlank()) {
+                groups.add(group.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        b.notifyGroups = Collections.unmodifiableList(groups);
+
+        b.messages = Messages.load(config.getConfigurationSection("messages"));
+
+        // Debug
+        b.debugEnabled = config.getBoolean("debug.enabled", false);
+        b.logDamageEvents = config.getBoolean("debug.log-damage-events", false);
+        b.logBorderChanges = config.getBoolean("debug.log-border-changes", false);
+
+        // Performance
+        b.saveIntervalMinutes = Math.max(0, config.getInt("performance.save-interval", 5));
+        b.safeSpawnPoolSize = Math.max(0, Math.min(MAX_SAFE_SPAWN_POOL_SIZE, config.getInt("performance.safe-spawn-pool-size", 8)));
+        b.instrumentationEnabled = config.getBoolean("performance.instrumentation", false);
+
+        // Local OpenMetrics endpoint
+        b.metricsEndpointEnabled = config.getBoolean("metrics.endpoint.enabled", false);
+        b.metricsEndpointHost = config.getString("metrics.endpoint.host", "127.0.0.1").trim();
+        b.metricsEndpointPort = Math.max(1, Math.min(65535, config.getInt("metrics.endpoint.port", 9940)));
+
+        return new BorderSettings(b);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, E def, String what, Logger logger) {
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid " + what + " configured: " + name);
+            return def;
+        }
+    }
+
+    /**
+     * @return A copy of these settings with the enabled flag replaced
+     */
+    public BorderSettings withEnabled(boolean enabled) {
+        Builder b = new Builder(this);
+        b.enabled = enabled;
+        return new BorderSettings(b);
+    }
+
+    /**
+     * @return A copy of these settings with hardcore mode replaced
+     */
+    public BorderSettings withHardcoreMode(boolean hardcoreMode) {
+        Builder b = new Builder(this);
+        b.hardcoreMode = hardcoreMode;
+        return new BorderSettings(b);
+    }
+
+    /**
+     * @return A copy of these settings with the spawn point of one world replaced
+     */
+    public BorderSettings withSpawn(String worldName, double x, double y, double z) {
+        WorldSettings world = worlds.get(worldName);
+        if (world == null) {
+            return this;
+        }
+        Map<String, WorldSettings> copy = new LinkedHashMap<>(worlds);
+        copy.put(worldName, world.withSpawn(x, y, z));
+        Builder b = new Builder(this);
+        b.worlds = Collections.unmodifiableMap(copy);
+        return new BorderSettings(b);
+    }
+
+    // Getters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public boolean isHardcoreMode() {
+        return hardcoreMode;
+    }
+
+    public boolean isAffectOps() {
+        return affectOps;
+    }
+
+    /**
+     * @return The settings of the primary world (the top-level {@code world} key)
+     */
+    public WorldSettings getPrimaryWorld() {
+        return worlds.get(worldName);
+    }
+
+    /**
+     * @param worldName A world name
+     * @return The settings of that world, or null if it has no HitBorder border
+     */
+    @Nullable
+    public WorldSettings getWorld(String worldName) {
+        return worlds.get(worldName);
+    }
+
+    /**
+     * @return All border worlds by name, primary world first
+     */
+    public Map<String, WorldSettings> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * @return The growth weight and cap of every damage cause
+     */
+    public DamageWeights getDamageWeights() {
+        return damageWeights;
+    }
+
+    @Nullable
+    public Sound getNotificationSound() {
+        return notificationSound;
+    }
+
+    public float getNotificationVolume() {
+        return notificationVolume;
+    }
+
+    public float getNotificationPitch() {
+        return notificationPitch;
+    }
+
+    public boolean isJoinMessageEnabled() {
+        return joinMessageEnabled;
+    }
+
+    /**
+     * @return How the border size is shown to notified players
+     */
+    public DisplayMode getDisplayMode() {
+        return displayMode;
+    }
+
+    /**
+     * @return The minimum number of ticks between two updates of the border display
+     */
+    public int getDisplayRefreshTicks() {
+        return displayRefreshTicks;
+    }
+
+    /**
+     * @return The boss bar title or action bar text; {@code %size%} is the current and {@code %s1} the maximum size
+     */
+    public MessageTemplate getDisplayFormat() {
+        return displayFormat;
+    }
+
+    /**
+     * @return The colour of the border boss bar
+     */
+    public BossBar.Color getBossBarColor() {
+        return bossBarColor;
+    }
+
+    /**
+     * @return The diameter step at which a growth is also announced in chat, 0 for only the maximum size
+     */
+    public double getMilestoneStepDiameter() {
+        return milestoneStepDiameter;
+    }
+
+    /**
+     * @return Whether busy borders switch to periodic growth summaries
+     */
+    public boolean isDigestEnabled() {
+        return digestEnabled;
+    }
+
+    /**
+     * @return The number of growth announcements per digest interval above which a border switches to summaries
+     */
+    public int getDigestThreshold() {
+        return digestThreshold;
+    }
+
+    /**
+     * @return The length of a digest interval in ticks
+     */
+    public int getDigestIntervalTicks() {
+        return digestIntervalTicks;
+    }
+
+    public boolean isLuckPermsEnabled() {
+        return luckPermsEnabled;
+    }
+
+    /**
+     * @return The configured LuckPerms notify groups, trimmed and lower-cased
+     */
+    public List<String> getNotifyGroups() {
+        return notifyGroups;
+    }
+
+    /**
+     * @param key The key below {@code messages.}
+     * @return The precompiled template (prefix included); empty if the message is not configured
+     */
+    public MessageTemplate getMessage(String key) {
+        return messages.get(key);
+    }
+
+    public Messages getMessages() {
+        return messages;
+    }
+
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    public boolean isLogDamageEvents() {
+        return logDamageEvents;
+    }
+
+    public boolean isLogBorderChanges() {
+        return logBorderChanges;
+    }
+
+    /**
+     * @return Minutes between border state saves, 0 if the state is only saved on disable
+     */
+    public int getSaveIntervalMinutes() {
+        return saveIntervalMinutes;
+    }
+
+    /**
+     * @return How many safe spawn points are kept per border world, 0 if the pool is disabled
+     */
+    public int getSafeSpawnPoolSize() {
+        return safeSpawnPoolSize;
+    }
+
+    /**
+     * @return true if handler latencies and damage decisions are recorded for {@code /hitborder perf}
+     */
+    public boolean isInstrumentationEnabled() {
+        return instrumentationEnabled;
+    }
+
+    /**
+     * @return true if the local OpenMetrics endpoint should run
+     */
+    public boolean isMetricsEndpointEnabled() {
+        return metricsEndpointEnabled;
+    }
+
+    /**
+     * @return The address the OpenMetrics endpoint binds to
+     */
+    public String getMetricsEndpointHost() {
+        return metricsEndpointHost;
+    }
+
+    /**
+     * @return The port of the OpenMetrics endpoint
+     */
+    public int getMetricsEndpointPort() {
+        return metricsEndpointPort;
+    }
+
+    /**
+     * Mutable staging area used while compiling or copying a snapshot. Never escapes this class.
+     */
+    private static final class Builder {
+        private boolean enabled;
+        private String worldName;
+        private boolean hardcoreMode;
+        private boolean affectOps;
+        private Map<String, WorldSettings> worlds;
+        private DamageWeights damageWeights;
+        private Sound notificationSound;
+        private float notificationVolume;
+        private float notificationPitch;
+        private boolean joinMessageEnabled;
+        private DisplayMode displayMode;
+        private int displayRefreshTicks;
+        private MessageTemplate displayFormat;
+        private BossBar.Color bossBarColor;
+        private double milestoneStepDiameter;
+        private boolean digestEnabled;
+        private int digestThreshold;
+        private int digestIntervalTicks;
+        private boolean luckPermsEnabled;
+        private List<String> notifyGroups;
+        private Messages messages;
+        private boolean debugEnabled;
+        private boolean logDamageEvents;
+        private boolean logBorderChanges;
+        private int saveIntervalMinutes;
+        private int safeSpawnPoolSize;
+        private boolean instrumentationEnabled;
+        private boolean metricsEndpointEnabled;
+        private String metricsEndpointHost;
+        private int metricsEndpointPort;
+
+        private Builder() {
+        }
+
+        private Builder(BorderSettings s) {
+            this.enabled = s.enabled;
+            this.worldName = s.worldName;
+            this.hardcoreMode = s.hardcoreMode;
+            this.affectOps = s.affectOps;
+            this.worlds = s.worlds;
+            this.damageWeights = s.damageWeights;
+            this.notificationSound = s.notificationSound;
+            this.notificationVolume = s.notificationVolume;
+            this.notificationPitch = s.notificationPitch;
+            this.joinMessageEnabled = s.joinMessageEnabled;
+            this.displayMode = s.displayMode;
+            this.displayRefreshTicks = s.displayRefreshTicks;
+            this.displayFormat = s.displayFormat;
+            this.bossBarColor = s.bossBarColor;
+            this.milestoneStepDiameter = s.milestoneStepDiameter;
+            this.digestEnabled = s.digestEnabled;
+            this.digestThreshold = s.digestThreshold;
+            this.digestIntervalTicks = s.digestIntervalTicks;
+            this.luckPermsEnabled = s.luckPermsEnabled;
+            this.notifyGroups = s.notifyGroups;
+            this.messages = s.messages;
+            this.debugEnabled = s.debugEnabled;
+            this.logDamageEvents = s.logDamageEvents;
+            this.logBorderChanges = s.logBorderChanges;
+            this.saveIntervalMinutes = s.saveIntervalMinutes;
+            this.safeSpawnPoolSize = s.safeSpawnPoolSize;
+            this.instrumentationEnabled = s.instrumentationEnabled;
+            this.metricsEndpointEnabled = s.metricsEndpointEnabled;
+            this.metricsEndpointHost = s.metricsEndpointHost;
+            this.metricsEndpointPort = s.metricsEndpointPort;
+        }
+    }
+}
@@ -1,47 +1,89 @@
 package org.vwtfafa.hitBorder.config;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
 import org.bukkit.Location;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class ConfigManager {
     public static final String CONFIG_VERSION = "1.0";
-    private static final int MAX_WARNING_DISTANCE = 100;
-    private static final int MIN_GROW_TIME = 1;
-    private static final int MAX_GROW_TIME = 600; // 10 minutes max
-    private static final double MIN_BORDER_SIZE = 1.0;
-    private static final double MAX_BORDER_SIZE = 60000000.0; // Minecraft's limit
+    private static final Component ADMIN_PREFIX = Component.text()
+            .append(Component.text("[", NamedTextColor.DARK_GRAY))
+            .append(Component.text("HitBorder", NamedTextColor.RED))
+            .append(Component.text("] ", NamedTextColor.DARK_GRAY))
+            .build();
     
     private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
     private final AtomicBoolean isReloading = new AtomicBoolean(false);
+    // Incremented by every publish, so a reload notices commands that changed settings meanwhile
+    private final AtomicLong generation = new AtomicLong();
     
-    private volatile double initialBorderSize;
-    private volatile double borderGrowAmount;
-    private volatile double minBorderSize;
-    private volatile double maxBorderSize;
-    private volatile int borderGrowTime;
-    private volatile int growthCooldown;
-    private volatile boolean hardcoreMode;
-    private volatile boolean enabled;
-    private volatile String worldName;
-    private volatile boolean affectOps;
-    private volatile Location spawnLocation;
-
-    public ConfigManager(JavaPlugin plugin) {
+    // Current settings snapshot, replaced as a whole on reload or mutation
+    private final AtomicReference<BorderSettings> settings = new AtomicReference<>();
+    private final List<Consumer<BorderSettings>> settingsListeners = new CopyOnWriteArrayList<>();
+    // Initial diameter last applied per world name, so a reload keeps grown or restored borders
+    private final Map<String, Double> initialDiameters = new ConcurrentHashMap<>();
+    // The shared configuration, replaced as a whole on the main thread by apply
+    private volatile FileConfiguration config;
+    private final ConfigWriter configWriter;
+
+    public ConfigManager(JavaPlugin plugin, TaskScheduler scheduler) {
         this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.config = withDefaults(new YamlConfiguration());
+        this.configWriter = new ConfigWriter(plugin, scheduler, this::getConfig);
         loadConfig();
     }
 
     /**
-     * Loads the configuration from disk with validation and error handling.
-     * This method is thread-safe and will prevent concurrent reloads.
+     * Returns the plugin's shared configuration, as last read from disk plus the changes made
+     * by commands since. {@link org.vwtfafa.hitBorder.HitBorder#getConfig()} returns the same
+     * object. Only modified on the main thread, through {@link ConfigWriter#set(String, Object)}.
+     * @return The configuration
+     */
+    public FileConfiguration getConfig() {
+        return config;
+    }
+
+    /**
+     * Writes all pending config changes and stops the config writer. Called on disable.
+     */
+    public void close() {
+        configWriter.close();
+    }
+
+    /**
+     * Loads the configuration from disk with validation and error handling, on the calling
+     * thread. Used once on enable; {@link #reload()} does the same without blocking the server.
      */
     public synchronized void loadConfig() {
         if (isReloading.getAndSet(true)) {
@@ -50,89 +92,12 @@ public class ConfigManager {
         }
 
         try {
-            // Save default config if it doesn't exist
-            plugin.saveDefaultConfig();
-            
-            // Reload the config from disk
-            plugin.reloadConfig();
-            FileConfiguration config = plugin.getConfig();
-
-            // Ensure config version is set
-            if (!config.contains("config-version")) {
-                config.set("config-version", CONFIG_VERSION);
-                plugin.saveConfig();
-            }
-            
-            // Check config version
-            String configVersion = config.getString("config-version");
-            if (!CONFIG_VERSION.equals(configVersion)) {
-                plugin.getLogger().warning(String.format(
-                    "Config version mismatch! Expected %s but found %s. Some settings may not work as expected.",
-                    CONFIG_VERSION, configVersion
-                ));
-                handleConfigMigration(configVersion);
-            }
-
-            // Load and validate border settings
-            double newMinSize = Math.max(MIN_BORDER_SIZE, Math.min(MAX_BORDER_SIZE, 
-                config.getDouble("border.min-size", 10.0)));
-            double newMaxSize = Math.max(newMinSize, Math.min(MAX_BORDER_SIZE, 
-                config.getDouble("border.max-size", 1000.0)));
-            double newInitialSize = Math.max(newMinSize, Math.min(newMaxSize, 
-                config.getDouble("border.initial-size", 100.0)));
-                
-            // Load other settings
-            double newGrowAmount = Math.max(0.1, 
-                config.getDouble("border.grow-amount", 1.0));
-            int newGrowTime = Math.max(MIN_GROW_TIME, 
-                Math.min(MAX_GROW_TIME, config.getInt("border.grow-time", 5)));
-            int newGrowthCooldown = Math.max(0, config.getInt("border.growth-cooldown", 10));
-            boolean newHardcoreMode = config.getBoolean("game.hardcore", false);
-            boolean newEnabled = config.getBoolean("enabled", true);
-            boolean newAffectOps = config.getBoolean("game.affect-ops", true);
-            int spawnX = config.getInt("spawn.x", 8);
-            int spawnY = config.getInt("spawn.y", 100);
-            int spawnZ = config.getInt("spawn.z", 8);
-
-            // Validate world name
-            String newWorldName = config.getString("world", "world").trim();
-            if (newWorldName.isEmpty()) {
-                throw new IllegalArgumentException("World name cannot be empty");
-            }
-            
-            // Apply new values atomically
-            synchronized (this) {
-                minBorderSize = newMinSize;
-                maxBorderSize = newMaxSize;
-                initialBorderSize = newInitialSize;
-                borderGrowAmount = newGrowAmount;
-                borderGrowTime = newGrowTime;
-                growthCooldown = newGrowthCooldown;
-                affectOps = newAffectOps;
-                hardcoreMode = newHardcoreMode;
-                enabled = newEnabled;
-                worldName = newWorldName;
-            }
-
-            World spawnWorld = Bukkit.getWorld(newWorldName);
-            if (spawnWorld != null) {
-                spawnLocation = new Location(spawnWorld, spawnX, spawnY, spawnZ);
-            }
-
-            // Initialize world border with the new settings
-            if (!initializeWorldBorder() && plugin.getServer().getWorld(worldName) == null) {
-                plugin.getLogger().warning(String.format(
-                    "World '%s' is not loaded. The border will be initialized when the world loads.",
-                    worldName
-                ));
-            }
-            
-            plugin.getLogger().info("Configuration loaded successfully");
+            apply(readSettings());
         } catch (Exception e) {
             String errorMsg = "Error loading config: " + e.getMessage();
             plugin.getLogger().severe(errorMsg);
             
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            if (config.getBoolean("debug.enabled", false)) {
                 e.printStackTrace();
             }
             
@@ -145,38 +110,108 @@ public class ConfigManager {
     }
     
     /**
-     * Restores default configuration values and saves them to the config file.
+     * The slow half of a load: writes pending command changes, reads and parses the file into a
+     * private copy and compiles the settings snapshot from it. Touches neither server state nor
+     * the plugin's shared configuration, so it may run on any thread.
+     * @return The parsed configuration and the settings compiled from it
+     * @throws IOException If the file cannot be read
+     * @throws InvalidConfigurationException If the file is not valid YAML
+     */
+    private LoadedConfig readSettings() throws IOException, InvalidConfigurationException {
+        // Save default config if it doesn't exist
+        plugin.saveDefaultConfig();
+
+        // Make sure changes made by commands are on disk before reading it
+        configWriter.flush();
+
+        // Read the file into a copy with the bundled defaults, like JavaPlugin.reloadConfig
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(new File(plugin.getDataFolder(), "config.yml"));
+        withDefaults(config);
+
+        // Check config version
+        String configVersion = config.getString("config-version");
+        if (!CONFIG_VERSION.equals(configVersion)) {
+            plugin.getLogger().warning(String.format(
+                "Config version mismatch! Expected %s but found %s. Some settings may not work as expected.",
+                CONFIG_VERSION, configVersion
+            ));
+            handleConfigMigration(configVersion);
+        }
+
+        // Compile and validate the full settings snapshot
+        return new LoadedConfig(config, BorderSettings.load(config, plugin.getLogger()));
+    }
+
+    /**
+     * Sets the bundled {@code config.yml} as the defaults of a configuration.
+     * @return The same configuration
+     */
+    private YamlConfiguration withDefaults(YamlConfiguration config) {
+        InputStream defaults = plugin.getResource("config.yml");
+        if (defaults != null) {
+            try (Reader reader = new InputStreamReader(defaults, StandardCharsets.UTF_8)) {
+                config.setDefaults(YamlConfiguration.loadConfiguration(reader));
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to read the bundled config defaults: " + e.getMessage());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * The fast half of a load, on the main thread: swaps in the configuration read by
+     * {@link #readSettings()} as the shared one, publishes its compiled snapshot in one swap and
+     * initializes the borders of the configured worlds. Never reads the file.
+     * @param loaded The configuration and snapshot to apply
+     */
+    private synchronized void apply(LoadedConfig loaded) {
+        BorderSettings newSettings = loaded.settings;
+        // The shared configuration is only replaced here, where ConfigWriter.set also runs
+        config = loaded.config;
+        if (!config.contains("config-version", true)) {
+            configWriter.set("config-version", CONFIG_VERSION);
+        }
+        publish(newSettings);
+
+        // Initialize the border of every configured world that is already loaded
+        for (WorldSettings worldSettings : newSettings.getWorlds().values()) {
+            World world = plugin.getServer().getWorld(worldSettings.getWorldName());
+            if (world == null) {
+                plugin.getLogger().warning(String.format(
+                    "World '%s' is not loaded. The border will be initialized when the world loads.",
+                    worldSettings.getWorldName()
+                ));
+            } else {
+                // World borders belong to the global region on Folia
+                scheduler.executeGlobal(() -> initializeWorldBorder(world, worldSettings));
+            }
+        }
+
+        plugin.getLogger().info("Configuration loaded successfully");
+    }
+
+    /**
+     * Restores default configuration values and queues them for writing to the config file.
      */
     private synchronized void restoreDefaults() {
         try {
-            // Set default values
-            minBorderSize = 10.0;
-            maxBorderSize = 1000.0;
-            initialBorderSize = 100.0;
-            borderGrowAmount = 1.0;
-            borderGrowTime = 5;
-            growthCooldown = 10;
-            hardcoreMode = false;
-            enabled = true;
-            worldName = "world";
-            affectOps = true;
-            spawnLocation = null;
-
-            // Update the config file with defaults
-            FileConfiguration config = plugin.getConfig();
-            config.set("border.min-size", minBorderSize);
-            config.set("border.max-size", maxBorderSize);
-            config.set("border.initial-size", initialBorderSize);
-            config.set("border.grow-amount", borderGrowAmount);
-            config.set("border.grow-time", borderGrowTime);
-            config.set("border.growth-cooldown", growthCooldown);
-            config.set("game.hardcore", hardcoreMode);
-            config.set("enabled", enabled);
-            config.set("world", worldName);
-            config.set("game.affect-ops", affectOps);
-            config.set("config-version", CONFIG_VERSION);
+            // Update the in-memory config and the file with defaults through the single writer
+            configWriter.set("border.min-size", 10.0);
+            configWriter.set("border.max-size", 1000.0);
+            configWriter.set("border.initial-size", 100.0);
+            configWriter.set("border.grow-amount", 1.0);
+            configWriter.set("border.grow-time", 5);
+            configWriter.set("border.growth-cooldown", 10);
+            configWriter.set("game.hardcore", false);
+            configWriter.set("enabled", true);
+            configWriter.set("world", "world");
+            configWriter.set("game.affect-ops", true);
+            configWriter.set("config-version", CONFIG_VERSION);
+
+            // Recompile the snapshot from the repaired config
+            publish(BorderSettings.load(config, plugin.getLogger()));
             
-            plugin.saveConfig();
             plugin.getLogger().info("Restored default configuration");
             
         } catch (Exception e) {
@@ -185,32 +220,37 @@ public class ConfigManager {
     }
 
     /**
-     * Initializes the world border with the current settings.
-     * @return true if the border was initialized successfully, false otherwise
+     * Publishes a new settings snapshot and notifies all settings listeners.
+     * @param newSettings The snapshot to publish
      */
-    private boolean initializeWorldBorder() {
-        String currentWorldName;
-        double currentMinSize, currentMaxSize, currentInitialSize;
-        Location currentSpawn;
-        
-        // Get a consistent snapshot of the current settings
-        synchronized (this) {
-            if (worldName == null || worldName.trim().isEmpty()) {
-                plugin.getLogger().warning("World name is not configured");
-                return false;
-            }
-            currentWorldName = worldName;
-            currentMinSize = minBorderSize;
-            currentMaxSize = maxBorderSize;
-            currentInitialSize = initialBorderSize;
-            currentSpawn = spawnLocation;
+    private void publish(BorderSettings newSettings) {
+        settings.set(newSettings);
+        generation.incrementAndGet();
+        for (Consumer<BorderSettings> listener : settingsListeners) {
+            listener.accept(newSettings);
         }
+    }
 
-        World world = Bukkit.getWorld(currentWorldName);
-        if (world == null) {
-            plugin.getLogger().warning(String.format("World '%s' not loaded. Border will be initialized when the world loads.", currentWorldName));
-            return false;
-        }
+    /**
+     * Registers a callback that receives every newly published settings snapshot.
+     * @param listener The callback, invoked on the thread that published the snapshot
+     */
+    public void addSettingsListener(@NotNull Consumer<BorderSettings> listener) {
+        settingsListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Initializes the border of one world with its configured settings. The size is only set the
+     * first time a world is initialized or when its configured initial size (or border mode)
+     * changed; otherwise the current, possibly grown or restored, size is kept and only pulled
+     * into the configured bounds.
+     * @param world The loaded world
+     * @param worldSettings The settings of that world
+     * @return true if the border was initialized successfully, false otherwise
+     */
+    public boolean initializeWorldBorder(@NotNull World world, @NotNull WorldSettings worldSettings) {
+        BorderSettings current = settings.get();
+        String currentWorldName = world.getName();
 
         try {
             WorldBorder border = world.getWorldBorder();
@@ -218,29 +258,34 @@ public class ConfigManager {
                 throw new IllegalStateException("Failed to get world border");
             }
 
-            // Get warning distance with validation
-            int warningDistance = Math.min(MAX_WARNING_DISTANCE, 
-                Math.max(0, plugin.getConfig().getInt("border.warning-distance", 10)));
-            
-            // Ensure size is within bounds
-            double size = Math.max(currentMinSize, Math.min(currentMaxSize, currentInitialSize));
+            int warningDistance = worldSettings.getWarningDistance();
+            // With virtual borders the shared border only marks the outer limit
+            double diameter = worldSettings.getBorderMode() == BorderMode.WORLD
+                    ? worldSettings.getInitialDiameter()
+                    : worldSettings.getMaxDiameter();
             
             // Set border properties atomically
-            if (currentSpawn != null) {
-                border.setCenter(currentSpawn.getX(), currentSpawn.getZ());
-                world.setSpawnLocation(currentSpawn.getBlockX(), currentSpawn.getBlockY(), currentSpawn.getBlockZ());
+            Location spawn = new Location(world, worldSettings.getSpawnX(), worldSettings.getSpawnY(), worldSettings.getSpawnZ());
+            border.setCenter(spawn.getX(), spawn.getZ());
+            world.setSpawnLocation(spawn.getBlockX(), spawn.getBlockY(), spawn.getBlockZ());
+            Double previous = initialDiameters.put(currentWorldName, diameter);
+            if (previous == null || previous.doubleValue() != diameter) {
+                border.setSize(diameter, 0);
             } else {
-                border.setCenter(0, 0);
+                double size = border.getSize();
+                double clamped = Math.max(worldSettings.getMinDiameter(), Math.min(worldSettings.getMaxDiameter(), size));
+                if (clamped != size) {
+                    border.setSize(clamped, 0);
+                }
             }
-            border.setSize(size * 2, 0); // Convert radius to diameter for Minecraft
             border.setDamageAmount(0);
             border.setDamageBuffer(0);
             border.setWarningDistance(warningDistance);
             
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            if (current.isDebugEnabled()) {
                 plugin.getLogger().info(String.format(
                     "Initialized border in %s - Radius: %.1f, Diameter: %.1f, Warning: %d blocks",
-                    currentWorldName, size, size * 2, warningDistance
+                    currentWorldName, border.getSize() / 2, border.getSize(), warningDistance
                 ));
             }
             
@@ -252,7 +297,7 @@ public class ConfigManager {
                 currentWorldName, e.getMessage()
             ));
             
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            if (current.isDebugEnabled()) {
                 e.printStackTrace();
             }
             
@@ -261,78 +306,129 @@ public class ConfigManager {
     }
 
     /**
-     * Reloads the configuration from disk.
-     * This method is thread-safe and will prevent concurrent reloads.
-     * @return true if reload was successful, false if a reload was already in progress
+     * Reloads the configuration from disk without blocking the server: the file is read,
+     * parsed and compiled on a background thread, and only the swap of the settings snapshot
+     * and the world border updates run on the main thread (the global region on Folia).
+     * If the reload fails the current settings stay in effect.
+     * @return A future completed on the main thread with true once the new settings are in
+     *         effect, or false if the reload failed or another one was already in progress
      */
-    public boolean reload() {
-        if (isReloading.get()) {
-            return false;
+    public CompletableFuture<Boolean> reload() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (isReloading.getAndSet(true)) {
+            result.complete(false);
+            return result;
         }
-        
+        scheduler.runAsync(() -> readAndApply(result));
+        return result;
+    }
+
+    private void readAndApply(CompletableFuture<Boolean> result) {
+        long readGeneration = generation.get();
+        LoadedConfig loaded;
         try {
-            loadConfig();
-            return true;
+            loaded = readSettings();
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to reload config: " + e.getMessage());
-            return false;
+            if (settings.get().isDebugEnabled()) {
+                e.printStackTrace();
+            }
+            scheduler.executeGlobal(() -> {
+                isReloading.set(false);
+                notifyAdmins("Configuration error: " + e.getMessage() + " - Keeping the current settings.");
+                result.complete(false);
+            });
+            return;
         }
+
+        scheduler.executeGlobal(() -> {
+            synchronized (this) {
+                if (generation.get() != readGeneration) {
+                    // A command changed the settings while the file was read; its change is
+                    // queued for writing, so read again after it has been written
+                    scheduler.runAsync(() -> readAndApply(result));
+                    return;
+                }
+                try {
+                    apply(loaded);
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Failed to apply reloaded config: " + e.getMessage());
+                    isReloading.set(false);
+                    result.complete(false);
+                    return;
+                }
+                isReloading.set(false);
+            }
+            result.complete(true);
+        });
+    }
+
+    /**
+     * Returns the current immutable settings snapshot. Callers on hot paths should read this
+     * once per event and use the returned object for all further lookups.
+     * @return The current settings
+     */
+    public BorderSettings getSettings() {
+        return settings.get();
     }
 
-    // Getters
+    // Convenience getters for the primary world (radius values)
     public double getInitialBorderSize() {
-        return initialBorderSize;
+        return settings.get().getPrimaryWorld().getInitialDiameter() / 2;
     }
 
     public double getBorderGrowAmount() {
-        return borderGrowAmount;
+        return settings.get().getPrimaryWorld().getGrowAmountDiameter() / 2;
     }
 
     public int getBorderGrowTime() {
-        return borderGrowTime;
+        return settings.get().getPrimaryWorld().getGrowTime();
     }
 
     public int getGrowthCooldown() {
-        return growthCooldown;
+        return settings.get().getPrimaryWorld().getGrowthCooldown();
     }
 
     public double getMinBorderSize() {
-        return minBorderSize;
+        return settings.get().getPrimaryWorld().getMinDiameter() / 2;
     }
 
     public double getMaxBorderSize() {
-        return maxBorderSize;
+        return settings.get().getPrimaryWorld().getMaxDiameter() / 2;
     }
 
     public boolean isHardcoreMode() {
-        return hardcoreMode;
+        return settings.get().isHardcoreMode();
     }
 
     public boolean isAffectOps() {
-        return affectOps;
+        return settings.get().isAffectOps();
     }
 
     public boolean isEnabled() {
-        return enabled;
+        return settings.get().isEnabled();
     }
 
     public String getWorldName() {
-        return worldName;
+        return settings.get().getWorldName();
     }
 
+    /**
+     * @param world A world
+     * @return The configured spawn of that world, or the primary world's spawn coordinates if
+     *         the world has no settings of its own
+     */
     public Location getSpawnLocation(@NotNull World world) {
-        if (spawnLocation != null && spawnLocation.getWorld() != null && spawnLocation.getWorld().equals(world)) {
-            return spawnLocation.clone();
+        BorderSettings current = settings.get();
+        WorldSettings worldSettings = current.getWorld(world.getName());
+        if (worldSettings == null) {
+            worldSettings = current.getPrimaryWorld();
         }
-        int spawnX = plugin.getConfig().getInt("spawn.x", 8);
-        int spawnY = plugin.getConfig().getInt("spawn.y", 100);
-        int spawnZ = plugin.getConfig().getInt("spawn.z", 8);
-        return new Location(world, spawnX, spawnY, spawnZ);
+        return new Location(world, worldSettings.getSpawnX(), worldSettings.getSpawnY(), worldSettings.getSpawnZ());
     }
     
-    public String getMessage(String key) {
-        String message = plugin.getConfig().getString("messages." + key, "");
-        return ChatColor.translateAlternateColorCodes('&', message);
+    public MessageTemplate getMessage(String key) {
+        return settings.get().getMessage(key);
     }
     
     /**
@@ -346,14 +442,14 @@ public class ConfigManager {
             
             // Example migration (uncomment and modify as needed):
             // if ("1.0".equals(oldVersion)) {
-            //     FileConfiguration config = plugin.getConfig();
-            //     // Perform migrations
-            //     plugin.saveConfig();
+            //     // Perform migrations through the single writer, on the main thread
+            //     scheduler.executeGlobal(() -> configWriter.set("some.path", newValue));
             // }
             
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to migrate config: " + e.getMessage());
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            BorderSettings current = settings.get();
+            if (current != null && current.isDebugEnabled()) {
                 e.printStackTrace();
             }
         }
@@ -367,18 +463,24 @@ public class ConfigManager {
         if (message == null || message.isEmpty()) {
             return;
         }
-        
+        notifyAdmins(Component.text(message, NamedTextColor.GRAY));
+    }
+
+    /**
+     * Notifies all online administrators with the given message.
+     * @param message The formatted message to send
+     */
+    private void notifyAdmins(Component message) {
         // Format message with plugin prefix
-        String formattedMessage = ChatColor.translateAlternateColorCodes('&', 
-            "&8[&cHitBorder&8] &7" + message);
+        Component formattedMessage = Component.textOfChildren(ADMIN_PREFIX, message);
         
         // Send to all online players with the hitborder.admin permission
-        Bukkit.getOnlinePlayers().stream()
-            .filter(player -> player.hasPermission("hitborder.admin"))
-            .forEach(player -> player.sendMessage(formattedMessage));
+        Bukkit.getServer()
+            .filterAudience(audience -> audience instanceof Player && ((Player) audience).hasPermission("hitborder.admin"))
+            .sendMessage(formattedMessage);
         
         // Also log to console
-        plugin.getLogger().info(ChatColor.stripColor(formattedMessage));
+        plugin.getLogger().info(PlainTextComponentSerializer.plainText().serialize(formattedMessage));
     }
     
     /**
@@ -386,39 +488,21 @@ public class ConfigManager {
      * @param enabled Whether the plugin should be enabled
      */
     public synchronized void setEnabled(boolean enabled) {
-        if (this.enabled != enabled) {
-            this.enabled = enabled;
-            
-            // Update config file asynchronously to avoid blocking
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    FileConfiguration config = plugin.getConfig();
-                    config.set("enabled", enabled);
-                    plugin.saveConfig();
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Failed to save enabled state: " + e.getMessage());
-                }
-            });
+        if (settings.get().isEnabled() != enabled) {
+            publish(settings.get().withEnabled(enabled));
+            configWriter.set("enabled", enabled);
             
             // Notify about the state change
             String message = enabled ? "Plugin has been enabled" : "Plugin has been disabled";
             plugin.getLogger().info(message);
-            notifyAdmins("\u00A7a" + message);
+            notifyAdmins(Component.text(message, NamedTextColor.GREEN));
         }
     }
 
     public synchronized void setHardcoreMode(boolean newHardcoreMode) {
-        if (hardcoreMode != newHardcoreMode) {
-            hardcoreMode = newHardcoreMode;
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    FileConfiguration config = plugin.getConfig();
-                    config.set("game.hardcore", newHardcoreMode);
-                    plugin.saveConfig();
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Failed to save hardcore mode: " + e.getMessage());
-                }
-            });
+        if (settings.get().isHardcoreMode() != newHardcoreMode) {
+            publish(settings.get().withHardcoreMode(newHardcoreMode));
+            configWriter.set("game.hardcore", newHardcoreMode);
         }
     }
 
@@ -428,52 +512,43 @@ public class ConfigManager {
         if (world == null) {
             throw new IllegalArgumentException("Spawn location must have a world");
         }
+        BorderSettings current = settings.get();
+        if (current.getWorld(world.getName()) == null) {
+            throw new IllegalArgumentException("World " + world.getName() + " has no HitBorder border");
+        }
+
+        publish(current.withSpawn(world.getName(), location.getX(), location.getY(), location.getZ()));
+        String path = world.getName().equals(current.getWorldName()) ? "spawn." : "worlds." + world.getName() + ".spawn.";
+        configWriter.set(path + "x", location.getBlockX());
+        configWriter.set(path + "y", location.getBlockY());
+        configWriter.set(path + "z", location.getBlockZ());
 
-        spawnLocation = location.clone();
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                FileConfiguration config = plugin.getConfig();
-                config.set("spawn.x", location.getBlockX());
-                config.set("spawn.y", location.getBlockY());
-                config.set("spawn.z", location.getBlockZ());
-                plugin.saveConfig();
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to save spawn location: " + e.getMessage());
+        scheduler.executeGlobal(() -> {
+            WorldBorder border = world.getWorldBorder();
+            if (border != null) {
+                border.setCenter(location.getX(), location.getZ());
             }
+            world.setSpawnLocation(location.getBlockX(), location.getBlockY(), location.getBlockZ());
         });
-
-        WorldBorder border = world.getWorldBorder();
-        if (border != null) {
-            border.setCenter(location.getX(), location.getZ());
-        }
-        world.setSpawnLocation(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
     
     /**
      * Sets the world border size with validation and safety checks.
-     * @param world The world to update (must not be null)
-     * @param size The new radius of the border (must be positive and within min/max bounds)
-     * @throws IllegalArgumentException if world is null or size is invalid
-     */
-    /**
-     * Sets the world border size with validation and safety checks.
-     * @param world The world to update (must not be null)
+     * @param controller The controller of the world to update (must not be null)
      * @param newSize The new radius of the border (must be positive and within min/max bounds)
-     * @throws IllegalArgumentException if world is null or size is invalid
+     * @throws IllegalArgumentException if controller is null or size is invalid
      * @throws IllegalStateException if the world border cannot be modified
      */
-    public void setBorderSize(@NotNull World world, double newSize) {
-        Objects.requireNonNull(world, "World cannot be null");
+    public void setBorderSize(@NotNull BorderController controller, double newSize) {
+        Objects.requireNonNull(controller, "Controller cannot be null");
         
-        // Get current bounds to ensure thread safety
-        double currentMinSize, currentMaxSize;
-        int currentGrowTime;
-        
-        synchronized (this) {
-            currentMinSize = minBorderSize;
-            currentMaxSize = maxBorderSize;
-            currentGrowTime = borderGrowTime;
-        }
+        // Read all bounds from the world's current settings
+        BorderSettings current = settings.get();
+        World world = controller.getWorld();
+        WorldSettings worldSettings = controller.getSettings();
+        double currentMinSize = worldSettings.getMinDiameter() / 2;
+        double currentMaxSize = worldSettings.getMaxDiameter() / 2;
+        int currentGrowTime = worldSettings.getGrowTime();
         
         // Validate the new size
         if (newSize < currentMinSize || newSize > currentMaxSize) {
@@ -483,17 +558,16 @@ public class ConfigManager {
             ));
         }
         
-        WorldBorder border = world.getWorldBorder();
-        if (border == null) {
+        if (world.getWorldBorder() == null) {
             throw new IllegalStateException("World border not available for " + world.getName());
         }
         
         try {
-            // Update the border size with the configured grow time
-            border.setSize(newSize * 2, currentGrowTime);
+            // Update the border size with the configured grow time, on the global region on Folia
+            scheduler.executeGlobal(() -> controller.transitionTo(newSize * 2, currentGrowTime));
             
             // Log the change if debug is enabled
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            if (current.isDebugEnabled()) {
                 plugin.getLogger().info(String.format(
                     "Set border size in %s to %.1f blocks (radius) over %d seconds", 
                     world.getName(), newSize, currentGrowTime
@@ -501,10 +575,11 @@ public class ConfigManager {
             }
             
             // Notify online admins about the change
-            String message = String.format(
-                "\u00A7eBorder size in %s is now \u00A76%.1f\u00A7e blocks (radius)",
-                world.getName(), newSize
-            );
+            Component message = Component.text()
+                .append(Component.text("Border size in " + world.getName() + " is now ", NamedTextColor.YELLOW))
+                .append(Component.text(String.format("%.1f", newSize), NamedTextColor.GOLD))
+                .append(Component.text(" blocks (radius)", NamedTextColor.YELLOW))
+                .build();
             notifyAdmins(message);
             
         } catch (Exception e) {
@@ -516,4 +591,17 @@ public class ConfigManager {
             throw new IllegalStateException(errorMsg, e);
         }
     }
+
+    /**
+     * A configuration read off the main thread together with the settings compiled from it.
+     */
+    private static final class LoadedConfig {
+        private final YamlConfiguration config;
+        private final BorderSettings settings;
+
+        private LoadedConfig(YamlConfiguration config, BorderSettings settings) {
+            this.config = config;
+            this.settings = settings;
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package org.vwtfafa.hitBorder.config;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+import org.vwtfafa.hitBorder.util.AtomicFiles;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Single writer for changes that commands make to {@code config.yml}.
+ * <p>
+ * Changes are applied to the in-memory configuration right away and collected as path/value
+ * pairs. Once per debounce window the collected changes are handed to one background thread,
+ * which reads the file, applies them, serialises the result and replaces the file atomically.
+ * Several commands in quick succession therefore cause one write, and the shared
+ * {@code FileConfiguration} is never serialised while it is being modified.
+ */
+public class ConfigWriter {
+    private static final long DEBOUNCE_TICKS = 20L;
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final Supplier<FileConfiguration> config;
+    private final File file;
+    private final ExecutorService executor;
+
+    private final Object lock = new Object();
+    private Map<String, Object> pending = new LinkedHashMap<>(); // guarded by lock
+    private boolean flushScheduled; // guarded by lock
+
+    /**
+     * @param config Supplies the current shared configuration that changes are applied to
+     */
+    public ConfigWriter(JavaPlugin plugin, TaskScheduler scheduler, Supplier<FileConfiguration> config) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.file = new File(plugin.getDataFolder(), "config.yml");
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HitBorder-Config-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets a value in the in-memory configuration and queues it for writing.
+     * Must be called from the main (global) thread.
+     * @param path The configuration path
+     * @param value The new value
+     */
+    public void set(String path, Object value) {
+        config.get().set(path, value);
+        synchronized (lock) {
+            pending.put(path, value);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.runGlobalLater(this::flushAsync, DEBOUNCE_TICKS);
+            }
+        }
+    }
+
+    private void flushAsync() {
+        Map<String, Object> changes = drain();
+        if (!changes.isEmpty()) {
+            executor.execute(() -> write(changes));
+        }
+    }
+
+    /**
+     * Writes all queued changes and waits until every earlier write has finished, e.g. before
+     * the configuration is reloaded from disk.
+     */
+    public void flush() {
+        Map<String, Object> changes = drain();
+        Future<?> done = executor.submit(() -> {
+            if (!changes.isEmpty()) {
+                write(changes);
+            }
+        });
+        try {
+            done.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to flush config changes", e);
+        }
+    }
+
+    /**
+     * Flushes all queued changes and stops the writer thread.
+     */
+    public void close() {
+        flush();
+        executor.shutdown();
+    }
+
+    private Map<String, Object> drain() {
+        synchronized (lock) {
+            Map<String, Object> changes = pending;
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+            return changes;
+        }
+    }
+
+    private void write(Map<String, Object> changes) {
+        try {
+            YamlConfiguration yaml = new YamlConfiguration();
+            if (file.isFile()) {
+                yaml.load(file);
+            }
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                yaml.set(change.getKey(), change.getValue());
+            }
+            AtomicFiles.write(file.toPath(), yaml.saveToString());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save config changes " + changes.keySet(), e);
+        }
+    }
+}
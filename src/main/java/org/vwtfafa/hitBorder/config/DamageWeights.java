@@ -0,0 +1,134 @@
+package org.vwtfafa.hitBorder.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * The compiled {@code game.damage-types} section: a growth weight and an optional growth cap
+ * per damage cause, stored in arrays indexed by {@link DamageCause#ordinal()}.
+ * <p>
+ * A weight of 0 means the cause does not grow the border, so the hot path replaces the
+ * allow-list lookup and the growth multiplier with a single array load. The section is either
+ * the old list of cause names (weight 1 each) or a map from cause name to a weight, or to a
+ * section with {@code weight} and {@code max-growth} (blocks per hit, like {@code grow-amount}).
+ */
+public final class DamageWeights {
+    private static final DamageCause[] CAUSES = DamageCause.values();
+    private static final DamageCause[] DEFAULT_CAUSES = {
+            DamageCause.ENTITY_ATTACK,
+            DamageCause.PROJECTILE,
+            DamageCause.FALL,
+            DamageCause.FIRE,
+            DamageCause.LAVA
+    };
+
+    private final double[] weights;
+    // Maximum growth per hit in blocks of diameter, +Infinity if uncapped
+    private final double[] caps;
+    private final int count;
+
+    private DamageWeights(double[] weights, double[] caps) {
+        this.weights = weights;
+        this.caps = caps;
+        int counted = 0;
+        for (double weight : weights) {
+            if (weight > 0) {
+                counted++;
+            }
+        }
+        this.count = counted;
+    }
+
+    /**
+     * Compiles the damage types below {@code path}.
+     * @param config The configuration root
+     * @param path The path of the damage type list or section
+     * @param logger Logger used to report invalid entries
+     * @return The compiled weights; the default causes with weight 1 if none are valid
+     */
+    static DamageWeights load(ConfigurationSection config, String path, Logger logger) {
+        double[] weights = new double[CAUSES.length];
+        double[] caps = new double[CAUSES.length];
+        Arrays.fill(caps, Double.POSITIVE_INFINITY);
+
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                DamageCause cause = parseCause(name, logger);
+                if (cause == null) {
+                    continue;
+                }
+                ConfigurationSection entry = section.getConfigurationSection(name);
+                if (entry != null) {
+                    weights[cause.ordinal()] = Math.max(0.0, entry.getDouble("weight", 1.0));
+                    if (entry.contains("max-growth")) {
+                        caps[cause.ordinal()] = Math.max(0.0, entry.getDouble("max-growth")) * 2;
+                    }
+                } else if (section.isDouble(name) || section.isInt(name)) {
+                    weights[cause.ordinal()] = Math.max(0.0, section.getDouble(name));
+                } else {
+                    logger.warning("Invalid weight for damage type " + name + ", expected a number");
+                }
+            }
+        } else {
+            for (String name : config.getStringList(path)) {
+                DamageCause cause = parseCause(name, logger);
+                if (cause != null) {
+                    weights[cause.ordinal()] = 1.0;
+                }
+            }
+        }
+
+        DamageWeights result = new DamageWeights(weights, caps);
+        if (result.count == 0) {
+            logger.warning("No valid damage types configured. Using default damage types.");
+            return defaults();
+        }
+        logger.info("Loaded " + result.count + " damage types that trigger border growth");
+        return result;
+    }
+
+    private static DamageCause parseCause(String name, Logger logger) {
+        try {
+            return DamageCause.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid damage cause in config: " + name);
+            return null;
+        }
+    }
+
+    private static DamageWeights defaults() {
+        double[] weights = new double[CAUSES.length];
+        double[] caps = new double[CAUSES.length];
+        Arrays.fill(caps, Double.POSITIVE_INFINITY);
+        for (DamageCause cause : DEFAULT_CAUSES) {
+            weights[cause.ordinal()] = 1.0;
+        }
+        return new DamageWeights(weights, caps);
+    }
+
+    /**
+     * @return The growth multiplier of a cause, 0 if it does not grow the border
+     */
+    public double getWeight(DamageCause cause) {
+        return weights[cause.ordinal()];
+    }
+
+    /**
+     * @return The maximum growth per hit in blocks of diameter, {@code +Infinity} if uncapped
+     */
+    public double getCap(DamageCause cause) {
+        return caps[cause.ordinal()];
+    }
+
+    /**
+     * @return The number of causes that grow the border
+     */
+    public int getCount() {
+        return count;
+    }
+}
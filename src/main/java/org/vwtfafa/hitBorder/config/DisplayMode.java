@@ -0,0 +1,19 @@
+package org.vwtfafa.hitBorder.config;
+
+/**
+ * How the border size is shown to notified players, configured by {@code game.display.mode}.
+ */
+public enum DisplayMode {
+    /**
+     * A chat message and sound for every growth, the behaviour before the display existed.
+     */
+    CHAT,
+    /**
+     * A boss bar per border showing the size, with its progress at size / max-size.
+     */
+    BOSSBAR,
+    /**
+     * The size in the action bar whenever it changes.
+     */
+    ACTIONBAR
+}
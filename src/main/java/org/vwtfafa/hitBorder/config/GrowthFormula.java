@@ -0,0 +1,344 @@
+package org.vwtfafa.hitBorder.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A {@code border.growth-formula} compiled into a tree of evaluators.
+ * <p>
+ * The formula is an arithmetic expression over the variables of one damage event, all sizes in
+ * blocks of radius like the rest of the configuration:
+ * <ul>
+ *     <li>{@code amount} - the configured {@code grow-amount}</li>
+ *     <li>{@code damage} - the final damage in half hearts, at least 1</li>
+ *     <li>{@code size} - the current border radius</li>
+ *     <li>{@code max} - the configured {@code max-size}</li>
+ *     <li>{@code players} - the number of online players</li>
+ *     <li>{@code weight} - the weight of the damage cause from {@code game.damage-types}</li>
+ * </ul>
+ * It supports {@code + - * / % ^}, parentheses, numbers and the functions {@code sqrt},
+ * {@code cbrt}, {@code abs}, {@code ln}, {@code log10}, {@code exp}, {@code floor}, {@code ceil},
+ * {@code min}, {@code max}, {@code pow} and {@code clamp}. Its result is the growth in blocks of
+ * radius.
+ * <p>
+ * The expression is parsed once when the configuration is loaded and syntax errors are reported
+ * then. Evaluation walks the compiled tree with primitive arguments only, so it does not
+ * allocate and is safe from any thread. Constant subexpressions are folded at compile time.
+ */
+public final class GrowthFormula {
+    /**
+     * The formula used when none is configured: linear growth per half heart.
+     */
+    public static final String DEFAULT_SOURCE = "amount * damage * weight";
+    public static final GrowthFormula LINEAR = compile(DEFAULT_SOURCE);
+
+    @FunctionalInterface
+    private interface Node {
+        double eval(double amount, double damage, double size, double max, double players, double weight);
+    }
+
+    private static final class Constant implements Node {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double eval(double amount, double damage, double size, double max, double players, double weight) {
+            return value;
+        }
+    }
+
+    private final String source;
+    private final Node root;
+    private final boolean usesPlayers;
+
+    private GrowthFormula(String source, Node root, boolean usesPlayers) {
+        this.source = source;
+        this.root = root;
+        this.usesPlayers = usesPlayers;
+    }
+
+    /**
+     * Compiles a formula.
+     * @param source The expression
+     * @return The compiled formula
+     * @throws IllegalArgumentException If the expression is not valid
+     */
+    public static GrowthFormula compile(String source) {
+        Parser parser = new Parser(source);
+        Node root = parser.parseExpression();
+        if (parser.pos < source.length()) {
+            throw parser.error("unexpected '" + source.charAt(parser.pos) + "'");
+        }
+        return new GrowthFormula(source, root, parser.usesPlayers);
+    }
+
+    /**
+     * Evaluates the formula for one damage event.
+     * @return The growth in blocks of radius; may be negative or NaN for unfortunate formulas
+     */
+    public double evaluate(double amount, double damage, double size, double max, int players, double weight) {
+        return root.eval(amount, damage, size, max, players, weight);
+    }
+
+    /**
+     * @return Whether the formula reads {@code players}, so callers can skip counting them
+     */
+    public boolean usesPlayers() {
+        return usesPlayers;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return Whether the whole formula was folded into a single constant
+     */
+    boolean isConstant() {
+        return root instanceof Constant;
+    }
+
+    /**
+     * Recursive descent parser; every method consumes one grammar rule and returns its node.
+     */
+    private static final class Parser {
+        private final String source;
+        private int pos;
+        private boolean usesPlayers;
+
+        private Parser(String source) {
+            this.source = source;
+        }
+
+        // expression := term (('+' | '-') term)*
+        private Node parseExpression() {
+            Node left = parseTerm();
+            while (true) {
+                if (accept('+')) {
+                    Node x = left;
+                    Node y = parseTerm();
+                    left = fold((a, d, s, m, p, w) -> x.eval(a, d, s, m, p, w) + y.eval(a, d, s, m, p, w), x, y);
+                } else if (accept('-')) {
+                    Node x = left;
+                    Node y = parseTerm();
+                    left = fold((a, d, s, m, p, w) -> x.eval(a, d, s, m, p, w) - y.eval(a, d, s, m, p, w), x, y);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        // term := unary (('*' | '/' | '%') unary)*
+        private Node parseTerm() {
+            Node left = parseUnary();
+            while (true) {
+                if (accept('*')) {
+                    Node x = left;
+                    Node y = parseUnary();
+                    left = fold((a, d, s, m, p, w) -> x.eval(a, d, s, m, p, w) * y.eval(a, d, s, m, p, w), x, y);
+                } else if (accept('/')) {
+                    Node x = left;
+                    Node y = parseUnary();
+                    left = fold((a, d, s, m, p, w) -> x.eval(a, d, s, m, p, w) / y.eval(a, d, s, m, p, w), x, y);
+                } else if (accept('%')) {
+                    Node x = left;
+                    Node y = parseUnary();
+                    left = fold((a, d, s, m, p, w) -> x.eval(a, d, s, m, p, w) % y.eval(a, d, s, m, p, w), x, y);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        // unary := '-' unary | power
+        private Node parseUnary() {
+            if (accept('-')) {
+                Node x = parseUnary();
+                return fold((a, d, s, m, p, w) -> -x.eval(a, d, s, m, p, w), x);
+            }
+            return parsePower();
+        }
+
+        // power := primary ('^' unary)?, right associative
+        private Node parsePower() {
+            Node x = parsePrimary();
+            if (accept('^')) {
+                Node y = parseUnary();
+                return fold((a, d, s, m, p, w) -> Math.pow(x.eval(a, d, s, m, p, w), y.eval(a, d, s, m, p, w)), x, y);
+            }
+            return x;
+        }
+
+        // primary := number | variable | function '(' arguments ')' | '(' expression ')'
+        private Node parsePrimary() {
+            skipWhitespace();
+            if (accept('(')) {
+                Node inner = parseExpression();
+                expect(')');
+                return inner;
+            }
+            if (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                return parseNumber();
+            }
+            if (pos < source.length() && Character.isLetter(source.charAt(pos))) {
+                int start = pos;
+                while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+                    pos++;
+                }
+                String name = source.substring(start, pos).toLowerCase(Locale.ROOT);
+                if (accept('(')) {
+                    return parseFunction(name, start);
+                }
+                return variable(name, start);
+            }
+            throw error(pos < source.length() ? "unexpected '" + source.charAt(pos) + "'" : "unexpected end of formula");
+        }
+
+        private Node parseNumber() {
+            int start = pos;
+            while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                pos++;
+            }
+            String text = source.substring(start, pos);
+            try {
+                return new Constant(Double.parseDouble(text));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("invalid number '" + text + "'");
+            }
+        }
+
+        private Node variable(String name, int start) {
+            switch (name) {
+                case "amount":
+                    return (a, d, s, m, p, w) -> a;
+                case "damage":
+                    return (a, d, s, m, p, w) -> d;
+                case "size":
+                    return (a, d, s, m, p, w) -> s;
+                case "max":
+                    return (a, d, s, m, p, w) -> m;
+                case "players":
+                    usesPlayers = true;
+                    return (a, d, s, m, p, w) -> p;
+                case "weight":
+                    return (a, d, s, m, p, w) -> w;
+                case "pi":
+                    return new Constant(Math.PI);
+                case "e":
+                    return new Constant(Math.E);
+                default:
+                    pos = start;
+                    throw error("unknown variable '" + name + "'");
+            }
+        }
+
+        private Node parseFunction(String name, int start) {
+            List<Node> args = new ArrayList<>();
+            if (!accept(')')) {
+                do {
+                    args.add(parseExpression());
+                } while (accept(','));
+                expect(')');
+            }
+            switch (name) {
+                case "sqrt":
+                    return unary(name, start, args, Math::sqrt);
+                case "cbrt":
+                    return unary(name, start, args, Math::cbrt);
+                case "abs":
+                    return unary(name, start, args, Math::abs);
+                case "ln":
+                    return unary(name, start, args, Math::log);
+                case "log10":
+                    return unary(name, start, args, Math::log10);
+                case "exp":
+                    return unary(name, start, args, Math::exp);
+                case "floor":
+                    return unary(name, start, args, Math::floor);
+                case "ceil":
+                    return unary(name, start, args, Math::ceil);
+                case "min":
+                    return binary(name, start, args, Math::min);
+                case "max":
+                    return binary(name, start, args, Math::max);
+                case "pow":
+                    return binary(name, start, args, Math::pow);
+                case "clamp": {
+                    checkArity(name, start, args, 3);
+                    Node x = args.get(0);
+                    Node lo = args.get(1);
+                    Node hi = args.get(2);
+                    return fold((a, d, s, m, p, w) -> Math.max(lo.eval(a, d, s, m, p, w),
+                            Math.min(hi.eval(a, d, s, m, p, w), x.eval(a, d, s, m, p, w))), x, lo, hi);
+                }
+                default:
+                    pos = start;
+                    throw error("unknown function '" + name + "'");
+            }
+        }
+
+        private Node unary(String name, int start, List<Node> args, DoubleUnaryOperator function) {
+            checkArity(name, start, args, 1);
+            Node x = args.get(0);
+            return fold((a, d, s, m, p, w) -> function.applyAsDouble(x.eval(a, d, s, m, p, w)), x);
+        }
+
+        private Node binary(String name, int start, List<Node> args, DoubleBinaryOperator function) {
+            checkArity(name, start, args, 2);
+            Node x = args.get(0);
+            Node y = args.get(1);
+            return fold((a, d, s, m, p, w) -> function.applyAsDouble(x.eval(a, d, s, m, p, w), y.eval(a, d, s, m, p, w)), x, y);
+        }
+
+        private void checkArity(String name, int start, List<Node> args, int arity) {
+            if (args.size() != arity) {
+                pos = start;
+                throw error(name + "() takes " + arity + " argument" + (arity == 1 ? "" : "s") + ", got " + args.size());
+            }
+        }
+
+        /**
+         * Replaces a node by its value if all of its operands are constants.
+         */
+        private static Node fold(Node node, Node... operands) {
+            for (Node operand : operands) {
+                if (!(operand instanceof Constant)) {
+                    return node;
+                }
+            }
+            return new Constant(node.eval(0, 0, 0, 0, 0, 0));
+        }
+
+        private boolean accept(char c) {
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + (pos + 1));
+        }
+    }
+}
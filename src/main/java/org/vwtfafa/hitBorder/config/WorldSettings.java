@@ -0,0 +1,308 @@
+package org.vwtfafa.hitBorder.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.protection.ProtectionRegion;
+import org.vwtfafa.hitBorder.protection.RegionIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Immutable border and spawn settings of one world, part of a {@link BorderSettings} snapshot.
+ * <p>
+ * The primary world uses the top-level {@code border} and {@code spawn} sections. Every entry
+ * below {@code worlds.<name>} may override any of those keys; anything it does not set is
+ * inherited from the top-level sections. Sizes are stored as diameters.
+ * <p>
+ * Protected regions are not inherited: the primary world uses {@code protection.regions}, every
+ * other world {@code worlds.<name>.protection.regions}. The spawn protection square is added as
+ * an implicit region named {@code spawn}.
+ */
+public final class WorldSettings {
+    private static final int MAX_WARNING_DISTANCE = 100;
+    private static final int MIN_GROW_TIME = 1;
+    private static final int MAX_GROW_TIME = 600; // 10 minutes max
+    private static final double MIN_BORDER_SIZE = 1.0;
+    private static final double MAX_BORDER_SIZE = 60000000.0; // Minecraft's limit
+    private static final int MAX_SHRINK_UPDATES_PER_MINUTE = 12;
+
+    private final String worldName;
+    private final BorderMode borderMode;
+    private final double minDiameter;
+    private final double maxDiameter;
+    private final double initialDiameter;
+    private final double growAmountDiameter;
+    private final GrowthFormula growthFormula;
+    private final int growTime;
+    private final int growthCooldown;
+    private final int warningDistance;
+    private final boolean shrinkEnabled;
+    private final double shrinkAmountDiameter;
+    private final int shrinkUpdatesPerMinute;
+    private final double spawnX;
+    private final double spawnY;
+    private final double spawnZ;
+    private final int spawnProtectionRadius;
+    private final List<ProtectionRegion> configuredRegions;
+    private final RegionIndex protection;
+
+    private WorldSettings(String worldName, BorderMode borderMode, double minDiameter, double maxDiameter,
+                          double initialDiameter, double growAmountDiameter, GrowthFormula growthFormula, int growTime,
+                          int growthCooldown, int warningDistance, boolean shrinkEnabled, double shrinkAmountDiameter, int shrinkUpdatesPerMinute,
+                          double spawnX, double spawnY, double spawnZ, int spawnProtectionRadius,
+                          List<ProtectionRegion> configuredRegions) {
+        this.worldName = worldName;
+        this.borderMode = borderMode;
+        this.minDiameter = minDiameter;
+        this.maxDiameter = maxDiameter;
+        this.initialDiameter = initialDiameter;
+        this.growAmountDiameter = growAmountDiameter;
+        this.growthFormula = growthFormula;
+        this.growTime = growTime;
+        this.growthCooldown = growthCooldown;
+        this.warningDistance = warningDistance;
+        this.shrinkEnabled = shrinkEnabled;
+        this.shrinkAmountDiameter = shrinkAmountDiameter;
+        this.shrinkUpdatesPerMinute = shrinkUpdatesPerMinute;
+        this.spawnX = spawnX;
+        this.spawnY = spawnY;
+        this.spawnZ = spawnZ;
+        this.spawnProtectionRadius = spawnProtectionRadius;
+        this.configuredRegions = configuredRegions;
+        this.protection = buildProtection();
+    }
+
+    private RegionIndex buildProtection() {
+        List<ProtectionRegion> regions = new ArrayList<>(configuredRegions.size() + 1);
+        if (spawnProtectionRadius > 0) {
+            int x = (int) Math.floor(spawnX);
+            int z = (int) Math.floor(spawnZ);
+            regions.add(ProtectionRegion.column("spawn", x - spawnProtectionRadius, z - spawnProtectionRadius,
+                    x + spawnProtectionRadius, z + spawnProtectionRadius));
+        }
+        regions.addAll(configuredRegions);
+        return RegionIndex.build(regions);
+    }
+
+    /**
+     * Compiles the settings of one world.
+     * @param worldName The world name
+     * @param root The root configuration providing the defaults
+     * @param override The {@code worlds.<name>} section, or null for the primary world
+     * @param logger Logger used to report invalid regions and growth formulas
+     * @return The compiled world settings
+     */
+    static WorldSettings load(String worldName, ConfigurationSection root, @Nullable ConfigurationSection override,
+                              Logger logger) {
+        Reader r = new Reader(root, override);
+
+        // Border sizes (configured as radius, stored as diameter)
+        double minSize = Math.max(MIN_BORDER_SIZE, Math.min(MAX_BORDER_SIZE, r.getDouble("border.min-size", 10.0)));
+        double maxSize = Math.max(minSize, Math.min(MAX_BORDER_SIZE, r.getDouble("border.max-size", 1000.0)));
+        double initialSize = Math.max(minSize, Math.min(maxSize, r.getDouble("border.initial-size", 100.0)));
+
+        return new WorldSettings(
+                worldName,
+                loadBorderMode(worldName, r.getString("border.mode", "world"), logger),
+                minSize * 2,
+                maxSize * 2,
+                initialSize * 2,
+                Math.max(0.1, r.getDouble("border.grow-amount", 1.0)) * 2,
+                loadGrowthFormula(worldName, r.getString("border.growth-formula", GrowthFormula.DEFAULT_SOURCE), logger),
+                Math.max(MIN_GROW_TIME, Math.min(MAX_GROW_TIME, r.getInt("border.grow-time", 5))),
+                Math.max(0, r.getInt("border.growth-cooldown", 10)),
+                Math.min(MAX_WARNING_DISTANCE, Math.max(0, r.getInt("border.warning-distance", 10))),
+                r.getBoolean("border.shrink-enabled", false),
+                Math.max(0.0, r.getDouble("border.shrink-amount", 0.2)) * 2,
+                Math.max(1, Math.min(MAX_SHRINK_UPDATES_PER_MINUTE, r.getInt("border.shrink-updates-per-minute", 2))),
+                r.getInt("spawn.x", 8),
+                r.getInt("spawn.y", 100),
+                r.getInt("spawn.z", 8),
+                Math.max(0, r.getInt("spawn.protection-radius", 8)),
+                loadRegions(worldName, (override != null ? override : root).getConfigurationSection("protection.regions"), logger)
+        );
+    }
+
+    private static BorderMode loadBorderMode(String worldName, String name, Logger logger) {
+        try {
+            return BorderMode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid border mode '" + name + "' in " + worldName + ", using world");
+            return BorderMode.WORLD;
+        }
+    }
+
+    private static GrowthFormula loadGrowthFormula(String worldName, String source, Logger logger) {
+        if (source.isBlank() || source.trim().equals(GrowthFormula.DEFAULT_SOURCE)) {
+            return GrowthFormula.LINEAR;
+        }
+        try {
+            return GrowthFormula.compile(source.trim());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid growth formula '" + source + "' in " + worldName + ": " + e.getMessage()
+                    + "; using " + GrowthFormula.DEFAULT_SOURCE);
+            return GrowthFormula.LINEAR;
+        }
+    }
+
+    private static List<ProtectionRegion> loadRegions(String worldName, @Nullable ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return List.of();
+        }
+        List<ProtectionRegion> regions = new ArrayList<>();
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection region = section.getConfigurationSection(name);
+            if (region == null || !region.isInt("x1") || !region.isInt("z1") || !region.isInt("x2") || !region.isInt("z2")) {
+                logger.warning("Protected region '" + name + "' in " + worldName + " needs integer x1, z1, x2 and z2; ignored");
+                continue;
+            }
+            regions.add(new ProtectionRegion(name,
+                    region.getInt("x1"), region.getInt("y1", Integer.MIN_VALUE), region.getInt("z1"),
+                    region.getInt("x2"), region.getInt("y2", Integer.MAX_VALUE), region.getInt("z2")));
+        }
+        return List.copyOf(regions);
+    }
+
+    /**
+     * @return A copy of these settings with the spawn point replaced
+     */
+    WorldSettings withSpawn(double x, double y, double z) {
+        return new WorldSettings(worldName, borderMode, minDiameter, maxDiameter, initialDiameter, growAmountDiameter,
+                growthFormula, growTime, growthCooldown, warningDistance, shrinkEnabled, shrinkAmountDiameter,
+                shrinkUpdatesPerMinute, x, y, z, spawnProtectionRadius, configuredRegions);
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * @return Whether hits grow the world border, or a virtual border per player or team
+     */
+    public BorderMode getBorderMode() {
+        return borderMode;
+    }
+
+    public double getMinDiameter() {
+        return minDiameter;
+    }
+
+    public double getMaxDiameter() {
+        return maxDiameter;
+    }
+
+    public double getInitialDiameter() {
+        return initialDiameter;
+    }
+
+    public double getGrowAmountDiameter() {
+        return growAmountDiameter;
+    }
+
+    /**
+     * @return The compiled {@code border.growth-formula}, giving the growth per hit in blocks of radius
+     */
+    public GrowthFormula getGrowthFormula() {
+        return growthFormula;
+    }
+
+    public int getGrowTime() {
+        return growTime;
+    }
+
+    public int getGrowthCooldown() {
+        return growthCooldown;
+    }
+
+    /**
+     * @return The growth cooldown in server ticks
+     */
+    public int getGrowthCooldownTicks() {
+        return growthCooldown * 20;
+    }
+
+    public int getWarningDistance() {
+        return warningDistance;
+    }
+
+    /**
+     * @return true if the border shrinks over time and a positive shrink amount is configured
+     */
+    public boolean isShrinkEnabled() {
+        return shrinkEnabled && shrinkAmountDiameter > 0;
+    }
+
+    /**
+     * @return How many blocks of diameter the border shrinks per minute
+     */
+    public double getShrinkAmountDiameter() {
+        return shrinkAmountDiameter;
+    }
+
+    public int getShrinkUpdatesPerMinute() {
+        return shrinkUpdatesPerMinute;
+    }
+
+    /**
+     * @return The length of one shrink transition in seconds (60 / updates per minute)
+     */
+    public int getShrinkIntervalSeconds() {
+        return 60 / shrinkUpdatesPerMinute;
+    }
+
+    public double getSpawnX() {
+        return spawnX;
+    }
+
+    public double getSpawnY() {
+        return spawnY;
+    }
+
+    public double getSpawnZ() {
+        return spawnZ;
+    }
+
+    public int getSpawnProtectionRadius() {
+        return spawnProtectionRadius;
+    }
+
+    /**
+     * @return The index of all protected regions of this world, spawn protection included
+     */
+    public RegionIndex getProtection() {
+        return protection;
+    }
+
+    /**
+     * Reads a key from the per-world override section first, then from the root section.
+     */
+    private static final class Reader {
+        private final ConfigurationSection root;
+        @Nullable
+        private final ConfigurationSection override;
+
+        private Reader(ConfigurationSection root, @Nullable ConfigurationSection override) {
+            this.root = root;
+            this.override = override;
+        }
+
+        private double getDouble(String path, double def) {
+            return override != null && override.contains(path) ? override.getDouble(path, def) : root.getDouble(path, def);
+        }
+
+        private String getString(String path, String def) {
+            return override != null && override.contains(path) ? override.getString(path, def) : root.getString(path, def);
+        }
+
+        private int getInt(String path, int def) {
+            return override != null && override.contains(path) ? override.getInt(path, def) : root.getInt(path, def);
+        }
+
+        private boolean getBoolean(String path, boolean def) {
+            return override != null && override.contains(path) ? override.getBoolean(path, def) : root.getBoolean(path, def);
+        }
+    }
+}
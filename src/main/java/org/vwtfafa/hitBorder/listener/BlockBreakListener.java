@@ -1,8 +1,5 @@
 package org.vwtfafa.hitBorder.listener;
 
-import org.bukkit.Location;
-import org.bukkit.Material;
-import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -11,104 +8,93 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.config.BorderSettings;
 import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
 
 public class BlockBreakListener implements Listener {
     private final HitBorder plugin;
     private final ConfigManager configManager;
-    private Location spawnLocation;
-    private int spawnProtectionRadius;
-    private boolean spawnProtectionEnabled;
+    private final BorderManager borderManager;
+    private final PerfMonitor perfMonitor;
 
     public BlockBreakListener(HitBorder plugin) {
         this.plugin = plugin;
         this.configManager = plugin.getConfigManager();
-        loadSpawnSettings();
+        this.borderManager = plugin.getBorderManager();
+        this.perfMonitor = plugin.getPerfMonitor();
+        logSpawnSettings();
     }
 
-    private void loadSpawnSettings() {
-        spawnProtectionRadius = plugin.getConfig().getInt("spawn.protection-radius", 8); // 8 blocks = 1/2 chunk radius
-        spawnProtectionEnabled = true; // Always enable spawn protection
-        
-        String worldName = configManager.getWorldName();
-        World world = plugin.getServer().getWorld(worldName);
-        if (world != null) {
-            // Get chunk-aligned spawn coordinates
-            int centerX = plugin.getConfig().getInt("spawn.x", 8);
-            int centerY = plugin.getConfig().getInt("spawn.y", 100);
-            int centerZ = plugin.getConfig().getInt("spawn.z", 8);
-            
-            // Ensure spawn is at the center of a chunk
-            spawnLocation = new Location(world, centerX, centerY, centerZ);
-            
-            plugin.getLogger().info(String.format("Spawn protection enabled at chunk [%d, %d] with radius %d blocks", 
-                spawnLocation.getChunk().getX(), 
-                spawnLocation.getChunk().getZ(),
-                spawnProtectionRadius));
-        } else {
-            plugin.getLogger().warning("Failed to enable spawn protection - world not found: " + worldName);
-            spawnProtectionEnabled = false;
+    private void logSpawnSettings() {
+        for (BorderController controller : borderManager.getControllers()) {
+            WorldSettings settings = controller.getSettings();
+            plugin.getLogger().info(String.format("Spawn protection enabled in %s at chunk [%d, %d] with radius %d blocks",
+                controller.getWorld().getName(),
+                (int) Math.floor(settings.getSpawnX()) >> 4,
+                (int) Math.floor(settings.getSpawnZ()) >> 4,
+                settings.getSpawnProtectionRadius()));
+            int regions = settings.getProtection().getRegions().size();
+            if (regions > 0) {
+                plugin.getLogger().info(String.format("%d protected region(s) in %s", regions, controller.getWorld().getName()));
+            }
         }
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        if (!spawnProtectionEnabled || !configManager.isEnabled()) {
+        if (!configManager.isEnabled()) {
             return;
         }
 
+        long start = perfMonitor.start();
         Player player = event.getPlayer();
         Block block = event.getBlock();
-        
-        if (player.hasPermission("hitborder.spawn.bypass")) {
-            return;
-        }
 
-        // Prevent breaking blocks in the spawn area
-        if (isInSpawnArea(block.getLocation())) {
+        // Prevent breaking blocks in protected regions
+        if (isProtected(block) && !player.hasPermission(BorderSettings.SPAWN_BYPASS_PERMISSION)) {
             event.setCancelled(true);
             sendSpawnProtectionMessage(player);
         }
+        perfMonitor.stop(PerfMonitor.Handler.BLOCK_BREAK, start);
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
-        if (!spawnProtectionEnabled || !configManager.isEnabled()) {
+        if (!configManager.isEnabled()) {
             return;
         }
 
+        long start = perfMonitor.start();
         Player player = event.getPlayer();
         Block block = event.getBlock();
-        
-        if (player.hasPermission("hitborder.spawn.bypass")) {
-            return;
-        }
 
-        // Prevent placing blocks in the spawn area
-        if (isInSpawnArea(block.getLocation())) {
+        // Prevent placing blocks in protected regions
+        if (isProtected(block) && !player.hasPermission(BorderSettings.SPAWN_BYPASS_PERMISSION)) {
             event.setCancelled(true);
             sendSpawnProtectionMessage(player);
         }
+        perfMonitor.stop(PerfMonitor.Handler.BLOCK_PLACE, start);
     }
 
-    private boolean isInSpawnArea(Location location) {
-        if (!spawnProtectionEnabled || spawnLocation == null || !location.getWorld().equals(spawnLocation.getWorld())) {
+    private boolean isProtected(Block block) {
+        BorderController controller = borderManager.get(block.getWorld());
+        if (controller == null) {
             return false;
         }
-        
-        // Check if location is within the protected chunk
-        return Math.abs(location.getBlockX() - spawnLocation.getBlockX()) <= spawnProtectionRadius &&
-               Math.abs(location.getBlockZ() - spawnLocation.getBlockZ()) <= spawnProtectionRadius;
-    }
 
-    public void reload() {
-        loadSpawnSettings();
+        // One chunk-key probe rejects blocks outside every protected chunk
+        return controller.getSettings().getProtection().isProtected(block.getX(), block.getY(), block.getZ());
     }
 
     private void sendSpawnProtectionMessage(Player player) {
-        String message = configManager.getMessage("spawn-protection");
-        if (message != null && !message.isEmpty()) {
-            player.sendMessage(configManager.getMessage("prefix") + message);
+        MessageTemplate message = configManager.getMessage("spawn-protection");
+        if (!message.isEmpty()) {
+            player.sendMessage(message.render());
         }
     }
 }
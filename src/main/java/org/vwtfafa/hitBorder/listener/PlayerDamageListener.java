@@ -1,6 +1,6 @@
 package org.vwtfafa.hitBorder.listener;
 
-import org.bukkit.ChatColor;
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
 import org.bukkit.entity.EntityType;
@@ -10,292 +10,184 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.border.GrowthAccumulator;
+import org.vwtfafa.hitBorder.border.VirtualBorder;
+import org.vwtfafa.hitBorder.border.VirtualBorderManager;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.BorderSettings;
 import org.vwtfafa.hitBorder.config.ConfigManager;
-import org.vwtfafa.hitBorder.util.LuckPermsHook;
+import org.vwtfafa.hitBorder.config.DamageWeights;
+import org.vwtfafa.hitBorder.config.GrowthFormula;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.perf.DamageOutcome;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
+import org.vwtfafa.hitBorder.session.PlayerSession;
+import org.vwtfafa.hitBorder.session.PlayerSessionStore;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import org.bukkit.Sound;
-import java.util.stream.Collectors;
 
 public class PlayerDamageListener implements Listener {
     private final HitBorder plugin;
     private final ConfigManager configManager;
-    private final LuckPermsHook luckPermsHook;
-    private Set<EntityDamageEvent.DamageCause> allowedDamageCauses;
-    private final ConcurrentMap<UUID, Long> lastGrowthByPlayer = new ConcurrentHashMap<>();
+    private final GrowthAccumulator growthAccumulator;
+    private final BorderManager borderManager;
+    private final VirtualBorderManager virtualBorderManager;
+    private final PlayerSessionStore sessionStore;
+    private final PerfMonitor perfMonitor;
 
     public PlayerDamageListener(HitBorder plugin) {
         this.plugin = plugin;
         this.configManager = plugin.getConfigManager();
-        this.luckPermsHook = plugin.getLuckPermsHook();
-        loadDamageCauses();
-    }
-
-    private void loadDamageCauses() {
-        try {
-            List<String> damageCauseNames = plugin.getConfig().getStringList("game.damage-types");
-            this.allowedDamageCauses = damageCauseNames.stream()
-                    .map(String::toUpperCase)
-                    .map(this::parseDamageCause)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
-            if (allowedDamageCauses.isEmpty()) {
-                plugin.getLogger().warning("No valid damage types configured. Using default damage types.");
-                allowedDamageCauses = Set.of(
-                        EntityDamageEvent.DamageCause.ENTITY_ATTACK,
-                        EntityDamageEvent.DamageCause.PROJECTILE,
-                        EntityDamageEvent.DamageCause.FALL,
-                        EntityDamageEvent.DamageCause.FIRE,
-                        EntityDamageEvent.DamageCause.LAVA
-                );
-            }
-
-            plugin.getLogger().info("Loaded " + allowedDamageCauses.size() + " damage types that trigger border growth");
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error loading damage types: " + e.getMessage());
-            allowedDamageCauses = Set.of(EntityDamageEvent.DamageCause.values());
-        }
-    }
-
-    private EntityDamageEvent.DamageCause parseDamageCause(String name) {
-        try {
-            return EntityDamageEvent.DamageCause.valueOf(name);
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid damage cause in config: " + name);
-            return null;
-        }
+        this.growthAccumulator = plugin.getGrowthAccumulator();
+        this.borderManager = plugin.getBorderManager();
+        this.virtualBorderManager = plugin.getVirtualBorderManager();
+        this.sessionStore = plugin.getSessionStore();
+        this.perfMonitor = plugin.getPerfMonitor();
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerDamage(EntityDamageEvent event) {
         // Only process player damage
-        if (event.getEntityType() != EntityType.PLAYER || !configManager.isEnabled()) {
+        if (event.getEntityType() != EntityType.PLAYER) {
             return;
         }
 
+        long start = perfMonitor.start();
+        DamageOutcome outcome = handlePlayerDamage(event);
+        perfMonitor.count(outcome, event.getCause(), start);
+        perfMonitor.stop(PerfMonitor.Handler.DAMAGE, start);
+    }
+
+    private DamageOutcome handlePlayerDamage(EntityDamageEvent event) {
+        // Read one consistent settings snapshot for the whole event
+        BorderSettings settings = configManager.getSettings();
+        if (!settings.isEnabled()) {
+            return DamageOutcome.DISABLED;
+        }
+
         Player player = (Player) event.getEntity();
         World world = player.getWorld();
-
-        // Check if damage cause is allowed
-        if (!allowedDamageCauses.contains(event.getCause())) {
-            if (plugin.getConfig().getBoolean("debug.log-damage-events", false)) {
+        PlayerSession session = sessionStore.get(player);
+        session.recordDamageEvent();
+
+        // A weight of 0 means the damage cause does not grow the border
+        DamageWeights damageWeights = settings.getDamageWeights();
+        double weight = damageWeights.getWeight(event.getCause());
+        if (weight <= 0) {
+            if (settings.isLogDamageEvents()) {
                 plugin.getLogger().info(String.format(
                         "Damage event %s from %s ignored - not in allowed damage types",
                         event.getCause(),
                         player.getName()
                 ));
             }
-            return;
+            return DamageOutcome.WRONG_CAUSE;
         }
 
-        // Skip if not the configured world
-        String targetWorld = configManager.getWorldName();
-        if (!world.getName().equals(targetWorld)) {
-            if (plugin.getConfig().getBoolean("debug.log-damage-events", false)) {
+        // Skip if HitBorder does not manage this world's border
+        BorderController controller = borderManager.get(world);
+        if (controller == null) {
+            if (settings.isLogDamageEvents()) {
                 plugin.getLogger().info(String.format(
-                        "Damage event in world %s ignored - expected %s",
-                        world.getName(),
-                        targetWorld
+                        "Damage event in world %s ignored - not a border world",
+                        world.getName()
                 ));
             }
-            return;
+            return DamageOutcome.WRONG_WORLD;
         }
+        WorldSettings worldSettings = controller.getSettings();
 
         // Skip if player has bypass permission (except in hardcore mode)
-        if (player.hasPermission("hitborder.bypass") && !configManager.isHardcoreMode()) {
-            if (plugin.getConfig().getBoolean("debug.log-damage-events", false)) {
+        if (!settings.isHardcoreMode() && session.isBypass()) {
+            if (settings.isLogDamageEvents()) {
                 plugin.getLogger().info(String.format(
                         "Damage event for %s ignored - has bypass permission",
                         player.getName()
                 ));
             }
-            return;
+            return DamageOutcome.BYPASS;
         }
 
         // Skip if ops should not affect the border
-        if (!configManager.isAffectOps() && player.isOp()) {
-            if (plugin.getConfig().getBoolean("debug.log-damage-events", false)) {
+        if (!settings.isAffectOps() && player.isOp()) {
+            if (settings.isLogDamageEvents()) {
                 plugin.getLogger().info(String.format(
                         "Damage event for %s ignored - ops do not affect border growth",
                         player.getName()
                 ));
             }
-            return;
+            return DamageOutcome.OP;
         }
 
-        int growthCooldownSeconds = configManager.getGrowthCooldown();
-        if (growthCooldownSeconds > 0) {
-            long now = System.currentTimeMillis();
-            long lastGrowth = lastGrowthByPlayer.getOrDefault(player.getUniqueId(), 0L);
-            long elapsedMillis = now - lastGrowth;
-            if (elapsedMillis < growthCooldownSeconds * 1000L) {
-                if (plugin.getConfig().getBoolean("debug.log-damage-events", false)) {
+        int currentTick = Bukkit.getCurrentTick();
+        int cooldownTicks = worldSettings.getGrowthCooldownTicks();
+        if (cooldownTicks > 0) {
+            int remainingTicks = session.getRemainingCooldown(currentTick, cooldownTicks);
+            if (remainingTicks > 0) {
+                if (settings.isLogDamageEvents()) {
                     plugin.getLogger().info(String.format(
                             "Damage event for %s ignored - cooldown active (%.2fs remaining)",
                             player.getName(),
-                            (growthCooldownSeconds * 1000L - elapsedMillis) / 1000.0
+                            remainingTicks / 20.0
                     ));
                 }
-                return;
+                return DamageOutcome.COOLDOWN;
             }
         }
 
-        WorldBorder border = world.getWorldBorder();
+        // In player and team mode the hit grows the player's own virtual border
+        VirtualBorder virtualBorder = worldSettings.getBorderMode() == BorderMode.WORLD
+                ? null
+                : virtualBorderManager.getOrAssign(player, controller);
+        WorldBorder border = virtualBorder != null ? virtualBorder.getBorder() : world.getWorldBorder();
         double currentSize = border.getSize();
-        double maxSize = configManager.getMaxBorderSize() * 2; // Convert to diameter
-        boolean atMaxSize = currentSize >= maxSize - 0.1;
-        if (atMaxSize) {
-            if (configManager.isHardcoreMode()) {
-                killForHardcore(player, world, maxSize / 2);
+        double maxSize = worldSettings.getMaxDiameter();
+        if (currentSize >= maxSize - 0.1) {
+            if (settings.isHardcoreMode()) {
+                growthAccumulator.killForHardcore(settings, player, world, maxSize / 2);
             }
-            return;
+            return DamageOutcome.AT_MAX;
         }
 
         double finalDamage = event.getFinalDamage();
         if (finalDamage <= 0) {
-            return;
+            return DamageOutcome.NO_DAMAGE;
         }
         int halfHearts = Math.max(1, (int) Math.ceil(finalDamage));
-        double growAmount = configManager.getBorderGrowAmount() * 2 * halfHearts; // Convert to diameter
-        double newSize = currentSize + growAmount;
+        GrowthFormula formula = worldSettings.getGrowthFormula();
+        double growAmount = Math.min(formula.evaluate(
+                worldSettings.getGrowAmountDiameter() / 2,
+                halfHearts,
+                currentSize / 2,
+                maxSize / 2,
+                formula.usesPlayers() ? Bukkit.getOnlinePlayers().size() : 0,
+                weight
+        ) * 2, damageWeights.getCap(event.getCause()));
+        // Also rejects NaN from formulas such as sqrt of a negative value
+        if (!(growAmount > 0)) {
+            return DamageOutcome.NO_GROWTH;
+        }
 
         // Debug logging
-        if (plugin.getConfig().getBoolean("debug.log-border-changes", false)) {
+        if (settings.isLogBorderChanges()) {
             plugin.getLogger().info(String.format(
-                    "Processing damage event: player=%s, cause=%s, currentSize=%.1f, growAmount=%.1f, newSize=%.1f, maxSize=%.1f",
+                    "Processing damage event: player=%s, cause=%s, currentSize=%.1f, growAmount=%.1f, maxSize=%.1f",
                     player.getName(),
                     event.getCause(),
                     currentSize / 2,
                     growAmount / 2,
-                    newSize / 2,
                     maxSize / 2
             ));
         }
 
-        // Ensure border doesn't exceed maximum size
-        atMaxSize = false;
-        if (newSize >= maxSize) {
-            newSize = maxSize;
-            atMaxSize = true;
-
-            // Don't grow border if already at max size
-            if (Math.abs(currentSize - maxSize) < 0.1) {
-                if (plugin.getConfig().getBoolean("debug.log-border-changes", false)) {
-                    plugin.getLogger().info("Border already at maximum size, not growing further");
-                }
-                return;
-            }
-        }
-
-        // Store the final size for use in lambda
-        final double finalNewSize = newSize;
-
-        // Apply new border size with smooth transition
-        int growTime = configManager.getBorderGrowTime();
-        border.setSize(finalNewSize, growTime);
-        lastGrowthByPlayer.put(player.getUniqueId(), System.currentTimeMillis());
-
-        // Notify players with permission (chat + optional sound ping)
-        String message = configManager.getMessage("border-grow");
-        if (message != null && !message.isEmpty()) {
-            final String finalMessage = ChatColor.translateAlternateColorCodes('&',
-                            configManager.getMessage("prefix") + message)
-                    .replace("%size%", String.format("%.1f", finalNewSize / 2));
-
-            String ping = configManager.getMessage("ping");
-            final String finalPing = (ping == null || ping.isEmpty()) ? "" : " " + ping;
-
-            world.getPlayers().stream()
-                    .filter(this::canReceiveNotification)
-                    .forEach(p -> {
-                        p.sendMessage(finalMessage);
-                        playNotificationSound(p);
-                    });
-        }
-
-        if (atMaxSize) {
-            String maxMessage = configManager.getMessage("border-max");
-            if (maxMessage != null && !maxMessage.isEmpty()) {
-                final String finalMaxMessage = ChatColor.translateAlternateColorCodes('&',
-                                configManager.getMessage("prefix") + maxMessage)
-                        .replace("%size%", String.format("%.1f", finalNewSize / 2));
-
-                world.getPlayers().stream()
-                        .filter(this::canReceiveNotification)
-                        .forEach(p -> {
-                            p.sendMessage(finalMaxMessage);
-                            playNotificationSound(p);
-                        });
-            }
-            if (configManager.isHardcoreMode()) {
-                killForHardcore(player, world, finalNewSize / 2);
-            }
-        }
-
-        // Debug logging
-        if (plugin.getConfig().getBoolean("debug.log-border-changes", false)) {
-            plugin.getLogger().info(String.format(
-                    "Border growing from %.1f to %.1f (radius) over %d seconds",
-                    currentSize / 2,
-                    finalNewSize / 2,
-                    growTime
-            ));
-        }
-    }
-
-    public void reload() {
-        loadDamageCauses();
-    }
-
-    private void killForHardcore(Player player, World world, double size) {
-        player.setHealth(0);
-        String deathMessage = configManager.getMessage("hardcore-death");
-        if (deathMessage != null && !deathMessage.isEmpty()) {
-            deathMessage = ChatColor.translateAlternateColorCodes('&',
-                            configManager.getMessage("prefix") + deathMessage)
-                    .replace("%player%", player.getName())
-                    .replace("%size%", String.format("%.1f", size));
-
-            String finalDeathMessage = deathMessage;
-            world.getPlayers().stream()
-                    .filter(this::canReceiveNotification)
-                    .forEach(p -> p.sendMessage(finalDeathMessage));
-        }
-    }
-
-
-    private boolean canReceiveNotification(Player player) {
-        if (player.hasPermission("hitborder.notify")) {
-            return true;
-        }
-        if (!plugin.getConfig().getBoolean("integrations.luckperms.enabled", true)) {
-            return false;
-        }
-        if (luckPermsHook == null || !luckPermsHook.isAvailable()) {
-            return false;
-        }
-        java.util.List<String> groups = plugin.getConfig().getStringList("integrations.luckperms.notify-groups");
-        return luckPermsHook.isInAnyGroup(player, groups);
-    }
-
-    private void playNotificationSound(Player player) {
-        if (!plugin.getConfig().getBoolean("game.notification-sound.enabled", true)) {
-            return;
-        }
-        String soundName = plugin.getConfig().getString("game.notification-sound.name", "BLOCK_NOTE_BLOCK_PLING");
-        float volume = (float) plugin.getConfig().getDouble("game.notification-sound.volume", 1.0);
-        float pitch = (float) plugin.getConfig().getDouble("game.notification-sound.pitch", 1.2);
-        try {
-            Sound sound = Sound.valueOf(soundName.toUpperCase(java.util.Locale.ROOT));
-            player.playSound(player.getLocation(), sound, volume, pitch);
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid notification sound configured: " + soundName);
+        // Growth of all hits in this tick is applied in one border update
+        if (virtualBorder != null) {
+            growthAccumulator.add(virtualBorder, player, growAmount);
+        } else {
+            growthAccumulator.add(controller, player, growAmount);
         }
+        session.recordGrowth(currentTick);
+        return DamageOutcome.GROWTH;
     }
 }
@@ -1,5 +1,7 @@
 package org.vwtfafa.hitBorder.listener;
 
+import io.papermc.paper.event.player.AsyncPlayerSpawnLocationEvent;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
@@ -10,88 +12,152 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.BorderSettings;
 import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.message.MessageTemplate;
+import org.vwtfafa.hitBorder.perf.PerfMonitor;
 
 public class PlayerSpawnListener implements Listener {
     private final HitBorder plugin;
     private final ConfigManager configManager;
+    private final BorderManager borderManager;
+    private final PerfMonitor perfMonitor;
 
     public PlayerSpawnListener(HitBorder plugin) {
         this.plugin = plugin;
         this.configManager = plugin.getConfigManager();
+        this.borderManager = plugin.getBorderManager();
+        this.perfMonitor = plugin.getPerfMonitor();
     }
 
+    /**
+     * Places players that would spawn outside the border at a pooled safe location before they
+     * join, so the client loads the chunks around its spawn only once. Fired off the main thread
+     * during login, so it never waits for another thread or touches the terrain: without a
+     * pooled point the location is left as it is and the join handler moves the player. In the
+     * virtual border modes the player's own border is only known after the join, so the join
+     * handler does the check there.
+     */
     @EventHandler(priority = EventPriority.HIGH)
-    public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
+    public void onSpawnLocation(AsyncPlayerSpawnLocationEvent event) {
         if (!configManager.isEnabled()) {
             return;
         }
 
+        Location spawnLocation = event.getSpawnLocation();
+        World world = spawnLocation.getWorld();
+        BorderController controller = world == null ? null : borderManager.get(world);
+        if (controller == null || controller.getSettings().getBorderMode() != BorderMode.WORLD
+                || world.getWorldBorder().isInside(spawnLocation)) {
+            return;
+        }
+        Location pooled = plugin.getSafeSpawnPool().get(world);
+        if (pooled != null) {
+            event.setSpawnLocation(pooled);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        long start = perfMonitor.start();
+        handleJoin(event.getPlayer());
+        perfMonitor.stop(PerfMonitor.Handler.JOIN, start);
+    }
+
+    private void handleJoin(Player player) {
+        BorderSettings settings = configManager.getSettings();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
         World world = player.getWorld();
-        if (!world.getName().equals(configManager.getWorldName())) {
+        if (borderManager.get(world) == null) {
             return;
         }
 
         ensureInsideBorder(player, player.getLocation());
-        sendJoinBorderMessage(player, world);
+        sendJoinBorderMessage(settings, player, world);
     }
 
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerRespawn(PlayerRespawnEvent event) {
-        if (!configManager.isEnabled()) {
+        long start = perfMonitor.start();
+        handleRespawn(event);
+        perfMonitor.stop(PerfMonitor.Handler.RESPAWN, start);
+    }
+
+    private void handleRespawn(PlayerRespawnEvent event) {
+        BorderSettings settings = configManager.getSettings();
+        if (!settings.isEnabled()) {
             return;
         }
 
         Location respawnLocation = event.getRespawnLocation();
         World world = respawnLocation.getWorld();
-        if (world == null || !world.getName().equals(configManager.getWorldName())) {
+        if (world == null || borderManager.get(world) == null) {
             return;
         }
 
-        Location safeLocation = getSafeSpawnLocation(world, respawnLocation);
+        Location safeLocation = getSafeSpawnLocation(world, getBorder(event.getPlayer(), world));
         if (!safeLocation.equals(respawnLocation)) {
             event.setRespawnLocation(safeLocation);
         }
     }
 
+    /**
+     * Fallback for players that still ended up outside the border (e.g. it shrank while they
+     * were logging in); normally the spawn location was already corrected before the join.
+     */
     private void ensureInsideBorder(Player player, Location currentLocation) {
         World world = currentLocation.getWorld();
-        if (world == null) {
+        if (world == null || borderManager.get(world) == null) {
             return;
         }
-
-        WorldBorder border = world.getWorldBorder();
-        if (border != null && !border.isInside(currentLocation)) {
-            Location safeLocation = getSafeSpawnLocation(world, currentLocation);
-            player.teleport(safeLocation);
+        WorldBorder border = getBorder(player, world);
+        if (!border.isInside(currentLocation)) {
+            player.teleportAsync(getSafeSpawnLocation(world, border));
         }
     }
 
-    private Location getSafeSpawnLocation(World world, Location fallback) {
-        Location baseSpawn = configManager.getSpawnLocation(world);
-        WorldBorder border = world.getWorldBorder();
-        if (border == null) {
-            return baseSpawn;
+    /**
+     * @return The border the player is shown in a world: their player or team border in the
+     *         virtual modes, otherwise the world border
+     */
+    private WorldBorder getBorder(Player player, World world) {
+        return plugin.getVirtualBorderManager().getBorder(player, world);
+    }
+
+    private Location getSafeSpawnLocation(World world, WorldBorder border) {
+        // Verified in the background; only fall back to a terrain lookup while the pool is empty
+        Location pooled = plugin.getSafeSpawnPool().get(world, border);
+        if (pooled != null) {
+            return pooled;
         }
 
+        Location baseSpawn = configManager.getSpawnLocation(world);
+
         Location chosen = border.isInside(baseSpawn) ? baseSpawn : border.getCenter();
+        int chunkX = chosen.getBlockX() >> 4;
+        int chunkZ = chosen.getBlockZ() >> 4;
+        if (!world.isChunkLoaded(chunkX, chunkZ) || !Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+            // Never load terrain synchronously (or read another Folia region's); use the configured height
+            return new Location(world, chosen.getBlockX() + 0.5, baseSpawn.getY(), chosen.getBlockZ() + 0.5);
+        }
         int safeY = world.getHighestBlockYAt(chosen.getBlockX(), chosen.getBlockZ()) + 1;
         return new Location(world, chosen.getBlockX() + 0.5, safeY, chosen.getBlockZ() + 0.5);
     }
 
-    private void sendJoinBorderMessage(Player player, World world) {
-        if (!plugin.getConfig().getBoolean("game.join-message.enabled", false)) {
+    private void sendJoinBorderMessage(BorderSettings settings, Player player, World world) {
+        if (!settings.isJoinMessageEnabled()) {
             return;
         }
-        String message = configManager.getMessage("join-border-size");
-        if (message == null || message.isEmpty()) {
+        MessageTemplate message = settings.getMessage("join-border-size");
+        if (message.isEmpty()) {
             return;
         }
-        double size = world.getWorldBorder().getSize() / 2;
-        String formatted = org.bukkit.ChatColor.translateAlternateColorCodes('&',
-                configManager.getMessage("prefix") + message)
-                .replace("%size%", String.format("%.1f", size));
-        player.sendMessage(formatted);
+        player.sendMessage(message.renderSize(plugin.getVirtualBorderManager().getBorder(player, world).getSize() / 2));
     }
 }
@@ -0,0 +1,148 @@
+package org.vwtfafa.hitBorder.listener;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.border.BorderManager;
+import org.vwtfafa.hitBorder.config.ConfigManager;
+import org.vwtfafa.hitBorder.protection.RegionIndex;
+
+import java.util.List;
+
+/**
+ * Protects the regions that {@link BlockBreakListener} guards against players from
+ * environmental changes: explosions, pistons, flowing fluids and fire.
+ */
+public class ProtectionListener implements Listener {
+    // Farther than any vanilla explosion can reach (wither and charged creepers stay below 10)
+    private static final int MAX_EXPLOSION_REACH = 64;
+
+    private final ConfigManager configManager;
+    private final BorderManager borderManager;
+
+    public ProtectionListener(HitBorder plugin) {
+        this.configManager = plugin.getConfigManager();
+        this.borderManager = plugin.getBorderManager();
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        filterExplosion(event.getLocation(), event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        filterExplosion(event.getBlock().getLocation(), event.blockList());
+    }
+
+    private void filterExplosion(Location origin, List<Block> blocks) {
+        RegionIndex index = getIndex(origin.getWorld());
+        if (index == null || blocks.isEmpty()) {
+            return;
+        }
+
+        // Explosions away from every region cost one bounds comparison
+        int x = origin.getBlockX();
+        int z = origin.getBlockZ();
+        if (!index.mayIntersect(x - MAX_EXPLOSION_REACH, z - MAX_EXPLOSION_REACH,
+                x + MAX_EXPLOSION_REACH, z + MAX_EXPLOSION_REACH)) {
+            return;
+        }
+        blocks.removeIf(block -> index.isProtected(block.getX(), block.getY(), block.getZ()));
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        Block piston = event.getBlock();
+        BlockFace direction = event.getDirection();
+        if (movesIntoProtection(piston, event.getBlocks(), direction)
+                || isForeignTarget(piston, piston.getX() + direction.getModX(), piston.getY() + direction.getModY(),
+                        piston.getZ() + direction.getModZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (movesIntoProtection(event.getBlock(), event.getBlocks(), event.getDirection())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Checks the source and destination of every block a piston moves. Pistons standing in a
+     * protected region may move blocks freely within it.
+     */
+    private boolean movesIntoProtection(Block piston, List<Block> moved, BlockFace direction) {
+        RegionIndex index = getIndex(piston.getWorld());
+        if (index == null || index.isProtected(piston.getX(), piston.getY(), piston.getZ())) {
+            return false;
+        }
+        int dx = direction.getModX();
+        int dy = direction.getModY();
+        int dz = direction.getModZ();
+        for (int i = 0, size = moved.size(); i < size; i++) {
+            Block block = moved.get(i);
+            if (index.isProtected(block.getX(), block.getY(), block.getZ())
+                    || index.isProtected(block.getX() + dx, block.getY() + dy, block.getZ() + dz)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        // Fires for every fluid update, so this path must not allocate
+        Block to = event.getToBlock();
+        if (isForeignTarget(event.getBlock(), to.getX(), to.getY(), to.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        Block block = event.getBlock();
+        RegionIndex index = getIndex(block.getWorld());
+        if (index != null && index.isProtected(block.getX(), block.getY(), block.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * @return true if the target position is protected while the source block is not, i.e.
+     *         something from outside would change a protected block
+     */
+    private boolean isForeignTarget(Block source, int x, int y, int z) {
+        RegionIndex index = getIndex(source.getWorld());
+        return index != null
+                && index.isProtected(x, y, z)
+                && !index.isProtected(source.getX(), source.getY(), source.getZ());
+    }
+
+    @Nullable
+    private RegionIndex getIndex(@Nullable World world) {
+        if (world == null || !configManager.isEnabled()) {
+            return null;
+        }
+        BorderController controller = borderManager.get(world);
+        if (controller == null) {
+            return null;
+        }
+        RegionIndex index = controller.getSettings().getProtection();
+        return index.isEmpty() ? null : index;
+    }
+}
@@ -0,0 +1,286 @@
+package org.vwtfafa.hitBorder.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.util.NumberFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A message that has been parsed into an Adventure component and split into static subtrees and
+ * typed placeholder slots once at load time.
+ * <p>
+ * The text is read as MiniMessage ({@code <gold>}, {@code <hover:...>}, ...), or with legacy
+ * {@code &} colour codes ({@code &6}, {@code &#rrggbb}) if it contains any. Supported
+ * placeholders are {@code %size%} (a number, rendered with one decimal), {@code %player%},
+ * {@code %s1} to {@code %s9} (positional arguments) and a bare {@code %s}, which is an alias for
+ * {@code %s1}; they take the style of the text around them. Rendering reuses every subtree
+ * without placeholders and only rebuilds the text components that contain one and their
+ * parents, with a single append pass each; a message without placeholders is rendered as the
+ * same component instance every time. Slots without a value are rendered as their original
+ * placeholder text. Placeholders inside hover or click events are not replaced.
+ */
+public final class MessageTemplate {
+    static final int SLOT_SIZE = -1;
+    static final int SLOT_PLAYER = -2;
+    private static final int MAX_ARGS = 9;
+
+    private static final String[] NO_ARGS = new String[0];
+    // Only '&' codes: the legacy serializer below is configured for that character
+    private static final Pattern LEGACY_CODE = Pattern.compile("&([0-9a-fk-orA-FK-OR]|#[0-9a-fA-F]{6})");
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
+            .character('&')
+            .hexColors()
+            .build();
+
+    private final Part root;
+    private final boolean empty;
+
+    private MessageTemplate(Part root, boolean empty) {
+        this.root = root;
+        this.empty = empty;
+    }
+
+    /**
+     * Parses message text from the configuration: MiniMessage, or legacy {@code &} colour codes
+     * if the text contains any.
+     * @param text The raw text
+     * @return The component
+     */
+    public static Component parse(String text) {
+        if (text.isEmpty()) {
+            return Component.empty();
+        }
+        if (LEGACY_CODE.matcher(text).find()) {
+            return LEGACY.deserialize(text);
+        }
+        return MiniMessage.miniMessage().deserialize(text);
+    }
+
+    /**
+     * Compiles a template from raw configuration text.
+     * @param prefix Component prepended verbatim (usually the parsed plugin prefix)
+     * @param body The message body; an empty body produces an {@link #isEmpty() empty} template
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(Component prefix, String body) {
+        Part bodyPart = compilePart(parse(body));
+        Part root = bodyPart;
+        if (!prefix.equals(Component.empty())) {
+            Component combined = Component.textOfChildren(prefix, bodyPart.component);
+            root = bodyPart.isStatic()
+                    ? new Part(combined)
+                    : new Part(combined, null, null, null, new Part[] {new Part(prefix), bodyPart});
+        }
+        return new MessageTemplate(root, body.isEmpty());
+    }
+
+    /**
+     * Compiles a component and its children, sharing every subtree without placeholders.
+     */
+    private static Part compilePart(Component component) {
+        List<Component> children = component.children();
+        Part[] parts = new Part[children.size()];
+        boolean dynamic = false;
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = compilePart(children.get(i));
+            dynamic |= !parts[i].isStatic();
+        }
+
+        if (component instanceof TextComponent && ((TextComponent) component).content().indexOf('%') >= 0) {
+            Part text = compileText((TextComponent) component, parts);
+            if (text != null) {
+                return text;
+            }
+        }
+        return dynamic ? new Part(component, null, null, null, parts) : new Part(component);
+    }
+
+    /**
+     * Splits the content of a text component into literals and placeholder slots.
+     * @return The part, or null if the content contains no placeholder
+     */
+    @Nullable
+    private static Part compileText(TextComponent component, Part[] children) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+
+        String content = component.content();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        int length = content.length();
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '%') {
+                int slot;
+                int consumed;
+                if (content.startsWith("%size%", i)) {
+                    slot = SLOT_SIZE;
+                    consumed = 6;
+                } else if (content.startsWith("%player%", i)) {
+                    slot = SLOT_PLAYER;
+                    consumed = 8;
+                } else if (content.startsWith("%s", i) && i + 2 < length
+                        && content.charAt(i + 2) >= '1' && content.charAt(i + 2) <= '9') {
+                    slot = content.charAt(i + 2) - '1';
+                    consumed = 3;
+                } else if (content.startsWith("%s", i)
+                        && (i + 2 >= length || !Character.isLetterOrDigit(content.charAt(i + 2)))) {
+                    slot = 0;
+                    consumed = 2;
+                } else {
+                    current.append(c);
+                    i++;
+                    continue;
+                }
+                literals.add(current.toString());
+                current.setLength(0);
+                slots.add(slot);
+                texts.add(content.substring(i, i + consumed));
+                i += consumed;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        if (slots.isEmpty()) {
+            return null;
+        }
+        literals.add(current.toString());
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) {
+            slotArray[s] = slots.get(s);
+        }
+        return new Part(component, literals.toArray(new String[0]), slotArray, texts.toArray(new String[0]), children);
+    }
+
+    /**
+     * @return true if the configured message body was empty and nothing should be sent
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Renders the template without any placeholder values.
+     */
+    public Component render() {
+        return render(Double.NaN, null, NO_ARGS);
+    }
+
+    /**
+     * Renders the template with a {@code %size%} value.
+     */
+    public Component renderSize(double size) {
+        return render(size, null, NO_ARGS);
+    }
+
+    /**
+     * Renders the template with positional {@code %sN} arguments.
+     */
+    public Component renderArgs(String... args) {
+        return render(Double.NaN, null, args);
+    }
+
+    /**
+     * Renders the template, rebuilding only the components that contain placeholders.
+     * @param size Value for {@code %size%}, or {@link Double#NaN} if not available
+     * @param player Value for {@code %player%}, or null if not available
+     * @param args Values for {@code %s1}..{@code %s9}
+     * @return The rendered message
+     */
+    public Component render(double size, @Nullable String player, String... args) {
+        return root.render(size, player, args);
+    }
+
+    /**
+     * One node of the compiled component tree. A static node renders as its component; a
+     * dynamic node rebuilds its content (if it has slots) and its dynamic children.
+     */
+    private static final class Part {
+        private final Component component;
+        // Content split at the placeholders; null if the content is static.
+        // literals.length == slots.length + 1; content is literal[0] slot[0] literal[1] ... literal[n]
+        @Nullable
+        private final String[] literals;
+        @Nullable
+        private final int[] slots;
+        @Nullable
+        private final String[] placeholderText;
+        // Null for a static node
+        @Nullable
+        private final Part[] children;
+        private final int literalLength;
+
+        private Part(Component component) {
+            this(component, null, null, null, null);
+        }
+
+        private Part(Component component, @Nullable String[] literals, @Nullable int[] slots,
+                     @Nullable String[] placeholderText, @Nullable Part[] children) {
+            this.component = component;
+            this.literals = literals;
+            this.slots = slots;
+            this.placeholderText = placeholderText;
+            this.children = children;
+            int length = 0;
+            if (literals != null) {
+                for (String literal : literals) {
+                    length += literal.length();
+                }
+            }
+            this.literalLength = length;
+        }
+
+        private boolean isStatic() {
+            return children == null;
+        }
+
+        private Component render(double size, @Nullable String player, String[] args) {
+            if (children == null) {
+                return component;
+            }
+            Component[] rendered = new Component[children.length];
+            for (int i = 0; i < children.length; i++) {
+                rendered[i] = children[i].render(size, player, args);
+            }
+            if (slots == null) {
+                return component.children(Arrays.asList(rendered));
+            }
+            Style style = component.style();
+            return Component.text(renderContent(size, player, args), style).children(Arrays.asList(rendered));
+        }
+
+        private String renderContent(double size, @Nullable String player, String[] args) {
+            StringBuilder sb = new StringBuilder(literalLength + slots.length * 8);
+            sb.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                int slot = slots[i];
+                if (slot == SLOT_SIZE) {
+                    if (Double.isNaN(size)) {
+                        sb.append(placeholderText[i]);
+                    } else {
+                        NumberFormatter.appendFixed(sb, size, 1);
+                    }
+                } else if (slot == SLOT_PLAYER) {
+                    sb.append(player != null ? player : placeholderText[i]);
+                } else if (slot < args.length && slot < MAX_ARGS && args[slot] != null) {
+                    sb.append(args[slot]);
+                } else {
+                    sb.append(placeholderText[i]);
+                }
+                sb.append(literals[i + 1]);
+            }
+            return sb.toString();
+        }
+    }
+}
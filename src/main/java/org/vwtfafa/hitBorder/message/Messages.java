@@ -0,0 +1,61 @@
+package org.vwtfafa.hitBorder.message;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled {@code messages.*} section. Every entry is parsed once into a
+ * {@link MessageTemplate} with the plugin prefix component already prepended, so a reload
+ * builds all static components and sending only fills in the placeholders.
+ */
+public final class Messages {
+    private static final MessageTemplate MISSING = MessageTemplate.compile(Component.empty(), "");
+
+    private final Component prefix;
+    private final Map<String, MessageTemplate> templates;
+
+    private Messages(Component prefix, Map<String, MessageTemplate> templates) {
+        this.prefix = prefix;
+        this.templates = templates;
+    }
+
+    /**
+     * Compiles every message in the given section.
+     * @param section The {@code messages} section, may be null if it is missing
+     * @return The compiled messages
+     */
+    public static Messages load(@Nullable ConfigurationSection section) {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        Component prefix = Component.empty();
+        if (section != null) {
+            prefix = MessageTemplate.parse(section.getString("prefix", ""));
+            for (String key : section.getKeys(false)) {
+                String raw = section.getString(key);
+                if (raw != null && !"prefix".equals(key)) {
+                    templates.put(key, MessageTemplate.compile(prefix, raw));
+                }
+            }
+        }
+        return new Messages(prefix, Collections.unmodifiableMap(templates));
+    }
+
+    /**
+     * @param key The key below {@code messages.}
+     * @return The compiled template (prefix included), or an empty template if it is not configured
+     */
+    public MessageTemplate get(String key) {
+        return templates.getOrDefault(key, MISSING);
+    }
+
+    /**
+     * @return The parsed plugin prefix
+     */
+    public Component getPrefix() {
+        return prefix;
+    }
+}
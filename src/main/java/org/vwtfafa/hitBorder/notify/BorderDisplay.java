@@ -0,0 +1,228 @@
+package org.vwtfafa.hitBorder.notify;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.border.VirtualBorder;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.config.DisplayMode;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+import org.vwtfafa.hitBorder.util.NumberFormatter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shows the size of every border on a boss bar or in the action bar, configured by
+ * {@code game.display}.
+ * <p>
+ * A single repeating task every {@code game.display.refresh-ticks} ticks reads the sizes, so
+ * the refresh rate is capped however often the borders change. The text is only rendered when
+ * the shown value (the radius rounded to one decimal) changed since its last update. A boss bar
+ * is only updated then, so once the border has settled nothing is sent; the action bar is
+ * cleared by the client after a few seconds, so it is resent every period while the display
+ * has members.
+ * World borders are shown to their world's notification recipients on a shared boss bar per
+ * world; a player or team border is shown to its own viewers. The text is rendered once per
+ * update and sent to all members of a display through one forwarding audience. Runs on the
+ * main thread, or on the global region on Folia, and keeps its state confined to that thread.
+ */
+public class BorderDisplay implements Runnable {
+    // The client clears the action bar after about three seconds; resend well before that
+    private static final int MAX_ACTION_BAR_TICKS = 40;
+
+    private final HitBorder plugin;
+    // Keyed by the BorderController or VirtualBorder being shown
+    private final Map<Object, Entry> entries = new IdentityHashMap<>();
+    private TaskScheduler.TaskHandle task;
+    private DisplayMode mode;
+    private int refreshTicks;
+    private int generation;
+
+    public BorderDisplay(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Restarts the display for a newly published settings snapshot.
+     * @param settings The new settings
+     */
+    public void applySettings(BorderSettings settings) {
+        plugin.getTaskScheduler().executeGlobal(() -> reconfigure(settings));
+    }
+
+    private void reconfigure(BorderSettings settings) {
+        // Format or colour may have changed; displays are recreated on the next run
+        clear();
+        if (settings.getDisplayMode() == mode && settings.getDisplayRefreshTicks() == refreshTicks) {
+            return;
+        }
+        stop();
+        mode = settings.getDisplayMode();
+        refreshTicks = settings.getDisplayRefreshTicks();
+        if (mode != DisplayMode.CHAT) {
+            int period = mode == DisplayMode.ACTIONBAR ? Math.min(refreshTicks, MAX_ACTION_BAR_TICKS) : refreshTicks;
+            task = plugin.getTaskScheduler().runGlobalTimer(this, period, period);
+        }
+    }
+
+    /**
+     * Stops the task and hides all boss bars.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        clear();
+    }
+
+    private void clear() {
+        for (Entry entry : entries.values()) {
+            entry.hide();
+        }
+        entries.clear();
+    }
+
+    @Override
+    public void run() {
+        BorderSettings settings = plugin.getConfigManager().getSettings();
+        if (!settings.isEnabled()) {
+            clear();
+            return;
+        }
+
+        generation++;
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            double maxDiameter = controller.getSettings().getMaxDiameter();
+            if (controller.getSettings().getBorderMode() == BorderMode.WORLD) {
+                Player[] recipients = plugin.getNotificationRecipients().get(controller.getWorld());
+                show(settings, controller, controller.getWorld().getWorldBorder(), maxDiameter, recipients, null);
+            } else {
+                for (VirtualBorder border : plugin.getVirtualBorderManager().getBorders(controller.getWorld())) {
+                    show(settings, border, border.getBorder(), maxDiameter, null, border.getViewers());
+                }
+            }
+        }
+
+        // Drop the displays of borders that no longer exist
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.generation != generation) {
+                entry.hide();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Updates one display. Recipients are either a shared array that is replaced whenever the
+     * set changes, or a live collection.
+     */
+    private void show(BorderSettings settings, Object key, WorldBorder border, double maxDiameter,
+                      @Nullable Player[] recipientArray, @Nullable Collection<Player> recipientSet) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(maxDiameter);
+            entries.put(key, entry);
+        }
+        entry.generation = generation;
+
+        // Players joining a boss bar are sent its current state by the bar itself
+        if (recipientArray != null) {
+            if (recipientArray != entry.recipientArray) {
+                entry.recipientArray = recipientArray;
+                entry.sync(Arrays.asList(recipientArray));
+            }
+        } else {
+            entry.sync(recipientSet);
+        }
+
+        double size = border.getSize();
+        long shown = Math.round(size * 5); // radius in tenths of a block
+        if (shown != entry.shown) {
+            entry.shown = shown;
+            entry.text = settings.getDisplayFormat().render(size / 2, null, entry.maxText);
+            if (mode == DisplayMode.BOSSBAR) {
+                entry.updateBossBar(settings, entry.text, size / maxDiameter);
+            }
+        }
+        if (mode == DisplayMode.ACTIONBAR && !entry.members.isEmpty()) {
+            entry.audience.sendActionBar(entry.text);
+        }
+    }
+
+    /**
+     * The display state of one border.
+     */
+    private static final class Entry {
+        private final String maxText;
+        private final Set<Player> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        // Forwards to the live member set
+        private final Audience audience = Audience.audience(members);
+        @Nullable
+        private BossBar bossBar;
+        @Nullable
+        private Player[] recipientArray;
+        private long shown = Long.MIN_VALUE;
+        private Component text = Component.empty();
+        private int generation;
+
+        private Entry(double maxDiameter) {
+            this.maxText = NumberFormatter.format1(maxDiameter / 2);
+        }
+
+        /**
+         * Makes the members match the recipients.
+         */
+        private void sync(Collection<Player> recipients) {
+            for (Player player : recipients) {
+                if (members.add(player) && bossBar != null) {
+                    player.showBossBar(bossBar);
+                }
+            }
+            if (members.size() != recipients.size()) {
+                Iterator<Player> it = members.iterator();
+                while (it.hasNext()) {
+                    Player player = it.next();
+                    if (!recipients.contains(player)) {
+                        it.remove();
+                        if (bossBar != null) {
+                            player.hideBossBar(bossBar);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void updateBossBar(BorderSettings settings, Component text, double progress) {
+            float clamped = (float) Math.max(0.0, Math.min(1.0, progress));
+            if (bossBar == null) {
+                bossBar = BossBar.bossBar(text, clamped, settings.getBossBarColor(), BossBar.Overlay.PROGRESS);
+                audience.showBossBar(bossBar);
+            } else {
+                bossBar.name(text);
+                bossBar.progress(clamped);
+            }
+        }
+
+        private void hide() {
+            if (bossBar != null) {
+                audience.hideBossBar(bossBar);
+                bossBar = null;
+            }
+        }
+    }
+}
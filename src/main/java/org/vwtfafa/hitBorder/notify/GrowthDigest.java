@@ -0,0 +1,151 @@
+package org.vwtfafa.hitBorder.notify;
+
+import org.bukkit.Bukkit;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Rate limiter for growth announcements that switches a busy border to periodic summaries,
+ * configured by {@code game.digest}.
+ * <p>
+ * Every border (world border or player/team border) counts its announcements per interval of
+ * {@code game.digest.interval} seconds. Once it has more than {@code game.digest.threshold}
+ * within one interval, further announcements are not sent but folded into a counter and the
+ * latest size; at the end of each interval the {@link Sink} sends one summary to the border's
+ * recipients. A border leaves digest mode after an interval in which it grew no more than the
+ * threshold allows. The state per border is a few primitives, so the chat and network load of
+ * a fight is bounded by one message per interval however many hits it contains.
+ * <p>
+ * Confined to the main thread, or the global region on Folia, like {@code GrowthAccumulator}.
+ */
+public class GrowthDigest implements Runnable {
+    /**
+     * Delivers a summary.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * @param key The border passed to {@link #offer(Object, double, BorderSettings)}
+         * @param growths The number of growths folded into this summary
+         * @param diameter The latest size
+         */
+        void send(Object key, int growths, double diameter);
+    }
+
+    private final HitBorder plugin;
+    private final Sink sink;
+    // Keyed by the BorderController or VirtualBorder that grew
+    private final Map<Object, Entry> entries = new IdentityHashMap<>();
+    private TaskScheduler.TaskHandle task;
+    private int intervalTicks;
+
+    public GrowthDigest(HitBorder plugin, Sink sink) {
+        this.plugin = plugin;
+        this.sink = sink;
+    }
+
+    /**
+     * (Re)starts the interval task for a newly published settings snapshot.
+     * @param settings The new settings
+     */
+    public void applySettings(BorderSettings settings) {
+        plugin.getTaskScheduler().executeGlobal(() -> reconfigure(settings));
+    }
+
+    private void reconfigure(BorderSettings settings) {
+        int interval = settings.isDigestEnabled() ? settings.getDigestIntervalTicks() : 0;
+        if (interval == intervalTicks) {
+            return;
+        }
+        stop();
+        intervalTicks = interval;
+        if (interval > 0) {
+            task = plugin.getTaskScheduler().runGlobalTimer(this, interval, interval);
+        }
+    }
+
+    /**
+     * Stops the task and sends the pending summaries.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        run();
+        entries.clear();
+        intervalTicks = 0;
+    }
+
+    /**
+     * Records a growth announcement of a border.
+     * @param key The BorderController or VirtualBorder that grew
+     * @param diameter The new size
+     * @param settings The current settings
+     * @return true if the announcement should be sent now, false if it was folded into a summary
+     */
+    public boolean offer(Object key, double diameter, BorderSettings settings) {
+        if (!settings.isDigestEnabled() || task == null) {
+            return true;
+        }
+        int currentTick = Bukkit.getCurrentTick();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        if (currentTick - entry.windowStartTick >= intervalTicks) {
+            entry.windowStartTick = currentTick;
+            entry.windowCount = 0;
+        }
+        entry.windowCount++;
+        if (!entry.digesting && entry.windowCount <= settings.getDigestThreshold()) {
+            return true;
+        }
+        entry.digesting = true;
+        entry.pending++;
+        entry.diameter = diameter;
+        return false;
+    }
+
+    /**
+     * Sends the summaries of the ended interval. Runs once per interval.
+     */
+    @Override
+    public void run() {
+        int threshold = plugin.getConfigManager().getSettings().getDigestThreshold();
+        int currentTick = Bukkit.getCurrentTick();
+        Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, Entry> mapEntry = it.next();
+            Entry entry = mapEntry.getValue();
+            if (entry.digesting) {
+                if (entry.pending > 0) {
+                    sink.send(mapEntry.getKey(), entry.pending, entry.diameter);
+                }
+                if (entry.pending <= threshold) {
+                    // Calm again; the next announcement is sent directly and starts a fresh window
+                    entry.digesting = false;
+                    entry.windowStartTick = currentTick;
+                    entry.windowCount = 0;
+                }
+                entry.pending = 0;
+            } else if (currentTick - entry.windowStartTick >= intervalTicks) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private int windowStartTick = Integer.MIN_VALUE / 2;
+        private int windowCount;
+        private boolean digesting;
+        private int pending;
+        private double diameter;
+    }
+}
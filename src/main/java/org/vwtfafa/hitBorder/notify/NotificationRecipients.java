@@ -0,0 +1,190 @@
+package org.vwtfafa.hitBorder.notify;
+
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.util.LuckPermsHook;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally maintained index of the players that receive border notifications, per world.
+ * <p>
+ * Eligibility (the {@code hitborder.notify} permission or a configured LuckPerms group) is
+ * evaluated when a player joins, changes world or has their permissions recalculated, never
+ * on the broadcast path. A broadcast sends one component to a prebuilt forwarding audience
+ * over a prebuilt array, both replaced only when the membership changes. The index is guarded
+ * by this object's lock, since on Folia the events arrive on different region threads;
+ * eligibility is evaluated outside the lock.
+ */
+public class NotificationRecipients implements Listener {
+    private static final Player[] NONE = new Player[0];
+
+    private final HitBorder plugin;
+    private final Map<World, WorldRecipients> byWorld = new IdentityHashMap<>();
+    private final Map<Player, World> indexedWorld = new IdentityHashMap<>();
+
+    public NotificationRecipients(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Returns the notification recipients in the given world. The returned array is shared and
+     * must not be modified.
+     * @param world The world
+     * @return The recipients, possibly empty
+     */
+    public synchronized Player[] get(@NotNull World world) {
+        WorldRecipients recipients = byWorld.get(world);
+        return recipients == null ? NONE : recipients.snapshot();
+    }
+
+    /**
+     * Returns the notification recipients in the given world as one audience, so a message is
+     * rendered once and forwarded to all of them. The audience is shared and rebuilt together
+     * with the array of {@link #get(World)}.
+     * @param world The world
+     * @return The audience, possibly empty
+     */
+    public synchronized Audience getAudience(@NotNull World world) {
+        WorldRecipients recipients = byWorld.get(world);
+        if (recipients == null) {
+            return Audience.empty();
+        }
+        recipients.snapshot();
+        return recipients.audience;
+    }
+
+    /**
+     * @param player A player
+     * @return true if the player currently receives border notifications, through the
+     *         permission or a configured LuckPerms group
+     */
+    public synchronized boolean isRecipient(@NotNull Player player) {
+        return indexedWorld.containsKey(player);
+    }
+
+    /**
+     * Re-evaluates one player's eligibility and world membership.
+     * @param player The player to refresh
+     */
+    public void refresh(@NotNull Player player) {
+        boolean eligible = player.isOnline() && isEligible(plugin.getConfigManager().getSettings(), player);
+        World world = player.getWorld();
+        synchronized (this) {
+            remove(player);
+            if (eligible) {
+                byWorld.computeIfAbsent(world, w -> new WorldRecipients()).add(player);
+                indexedWorld.put(player, world);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the whole index, e.g. after the configuration was reloaded.
+     */
+    public void rebuildAll() {
+        synchronized (this) {
+            byWorld.clear();
+            indexedWorld.clear();
+        }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    private synchronized void remove(Player player) {
+        World world = indexedWorld.remove(player);
+        if (world != null) {
+            WorldRecipients recipients = byWorld.get(world);
+            if (recipients != null) {
+                recipients.remove(player);
+            }
+        }
+    }
+
+    private boolean isEligible(BorderSettings settings, Player player) {
+        if (player.hasPermission(BorderSettings.NOTIFY_PERMISSION)) {
+            return true;
+        }
+        if (!settings.isLuckPermsEnabled() || settings.getNotifyGroups().isEmpty()) {
+            return false;
+        }
+        LuckPermsHook luckPermsHook = plugin.getLuckPermsHook();
+        if (luckPermsHook == null || !luckPermsHook.isAvailable()) {
+            return false;
+        }
+        return luckPermsHook.isInAnyGroup(player, settings.getNotifyGroups());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer());
+        LuckPermsHook luckPermsHook = plugin.getLuckPermsHook();
+        if (luckPermsHook != null) {
+            luckPermsHook.invalidate(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    /**
+     * The server resends the command tree whenever a player's permissions are recalculated
+     * (op changes, permission attachments, permission plugins), so this is the closest thing
+     * to a permission-change event the API offers.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPermissionsRecalculated(PlayerCommandSendEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    /**
+     * Recipients of one world with a lazily rebuilt array snapshot and audience. Only accessed
+     * while holding the lock of the enclosing {@link NotificationRecipients}.
+     */
+    private static final class WorldRecipients {
+        private final Set<Player> members = new LinkedHashSet<>();
+        private Player[] snapshot = NONE;
+        private Audience audience = Audience.empty();
+        private boolean dirty;
+
+        private void add(Player player) {
+            dirty |= members.add(player);
+        }
+
+        private void remove(Player player) {
+            dirty |= members.remove(player);
+        }
+
+        private Player[] snapshot() {
+            if (dirty) {
+                snapshot = members.toArray(NONE);
+                audience = Audience.audience(snapshot);
+                dirty = false;
+            }
+            return snapshot;
+        }
+    }
+}
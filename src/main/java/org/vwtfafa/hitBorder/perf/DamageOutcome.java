@@ -0,0 +1,27 @@
+package org.vwtfafa.hitBorder.perf;
+
+/**
+ * How {@code PlayerDamageListener} decided about one player damage event.
+ */
+public enum DamageOutcome {
+    DISABLED("plugin disabled"),
+    WRONG_CAUSE("damage cause not counted"),
+    WRONG_WORLD("not a border world"),
+    BYPASS("bypass permission"),
+    OP("op excluded"),
+    COOLDOWN("cooldown active"),
+    AT_MAX("border at maximum"),
+    NO_DAMAGE("no final damage"),
+    NO_GROWTH("growth formula gave no growth"),
+    GROWTH("border grew");
+
+    private final String description;
+
+    DamageOutcome(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
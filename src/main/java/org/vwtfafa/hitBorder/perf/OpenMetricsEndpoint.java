@@ -0,0 +1,224 @@
+package org.vwtfafa.hitBorder.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.WorldBorder;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Optional local HTTP endpoint that serves HitBorder's metrics in the OpenMetrics text format,
+ * for Prometheus or any compatible scraper. Uses the JDK's built-in HTTP server.
+ * <p>
+ * A scrape never touches Bukkit objects: counters and latency summaries come from the
+ * {@link PerfMonitor}, and border sizes from a snapshot that a task on the main thread (the
+ * global region on Folia) publishes once per second while the endpoint is running.
+ */
+public class OpenMetricsEndpoint {
+    private static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final long SAMPLE_PERIOD_TICKS = 20L;
+    private static final double[] QUANTILES = {0.5, 0.99};
+
+    private final HitBorder plugin;
+    private final PerfMonitor perfMonitor;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private TaskScheduler.TaskHandle sampleTask;
+    private String boundHost;
+    private int boundPort;
+    private volatile BorderSample[] borders = new BorderSample[0];
+
+    public OpenMetricsEndpoint(HitBorder plugin, PerfMonitor perfMonitor) {
+        this.plugin = plugin;
+        this.perfMonitor = perfMonitor;
+    }
+
+    /**
+     * Starts, stops or rebinds the endpoint to match the settings.
+     * @param settings The current settings
+     */
+    public synchronized void applySettings(BorderSettings settings) {
+        if (!settings.isMetricsEndpointEnabled()) {
+            stop();
+            return;
+        }
+        if (server != null && settings.getMetricsEndpointHost().equals(boundHost)
+                && settings.getMetricsEndpointPort() == boundPort) {
+            return;
+        }
+        stop();
+        start(settings.getMetricsEndpointHost(), settings.getMetricsEndpointPort());
+    }
+
+    private void start(String host, int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to start the metrics endpoint on " + host + ":" + port, e);
+            server = null;
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HitBorder-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+        server.start();
+        boundHost = host;
+        boundPort = port;
+        sampleTask = plugin.getTaskScheduler().runGlobalTimer(this::sample, 1L, SAMPLE_PERIOD_TICKS);
+        plugin.getLogger().info("Metrics endpoint listening on http://" + host + ":" + port + PATH);
+    }
+
+    /**
+     * Stops the endpoint if it is running.
+     */
+    public synchronized void stop() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+        }
+        boundHost = null;
+        boundPort = 0;
+    }
+
+    /**
+     * Copies the border sizes into an immutable snapshot. Runs on the main (global) thread.
+     */
+    private void sample() {
+        List<BorderSample> samples = new ArrayList<>();
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            WorldBorder border = controller.getWorld().getWorldBorder();
+            double size = border.getSize();
+            double target = controller.getTargetDiameter();
+            samples.add(new BorderSample(controller.getWorld().getName(), size, Double.isNaN(target) ? size : target));
+        }
+        borders = samples.toArray(new BorderSample[0]);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private String render() {
+        StringBuilder sb = new StringBuilder(2048);
+        BorderSample[] samples = borders;
+
+        family(sb, "hitborder_border_size_blocks", "gauge", "blocks", "Current border diameter");
+        for (BorderSample sample : samples) {
+            sb.append("hitborder_border_size_blocks{world=\"").append(escape(sample.world)).append("\"} ")
+                    .append(sample.size).append('\n');
+        }
+        family(sb, "hitborder_border_target_size_blocks", "gauge", "blocks", "Diameter the running transition ends at");
+        for (BorderSample sample : samples) {
+            sb.append("hitborder_border_target_size_blocks{world=\"").append(escape(sample.world)).append("\"} ")
+                    .append(sample.target).append('\n');
+        }
+
+        family(sb, "hitborder_growth_events", "counter", null, "Damage events that grew the border, by damage cause");
+        for (Map.Entry<DamageCause, Long> entry : perfMonitor.getGrowthByCause().entrySet()) {
+            sb.append("hitborder_growth_events_total{cause=\"").append(entry.getKey().name()).append("\"} ")
+                    .append(entry.getValue()).append('\n');
+        }
+        family(sb, "hitborder_damage_decisions", "counter", null, "Player damage events by decision");
+        for (Map.Entry<DamageOutcome, Long> entry : perfMonitor.getOutcomes().entrySet()) {
+            sb.append("hitborder_damage_decisions_total{outcome=\"")
+                    .append(entry.getKey().name().toLowerCase(Locale.ROOT)).append("\"} ")
+                    .append(entry.getValue()).append('\n');
+        }
+        family(sb, "hitborder_cooldown_rejections", "counter", null, "Damage events ignored because of the growth cooldown");
+        sb.append("hitborder_cooldown_rejections_total ")
+                .append(perfMonitor.getOutcomes().get(DamageOutcome.COOLDOWN)).append('\n');
+
+        family(sb, "hitborder_notification_broadcasts", "counter", null, "Border notifications sent");
+        sb.append("hitborder_notification_broadcasts_total ").append(perfMonitor.getBroadcasts()).append('\n');
+        family(sb, "hitborder_notification_recipients", "counter", null, "Players messaged by border notifications");
+        sb.append("hitborder_notification_recipients_total ").append(perfMonitor.getBroadcastRecipients()).append('\n');
+
+        family(sb, "hitborder_handler_latency_seconds", "summary", "seconds", "Handler latency");
+        for (PerfMonitor.Handler handler : PerfMonitor.Handler.values()) {
+            LatencyHistogram.Snapshot snapshot = perfMonitor.getSnapshot(handler);
+            String label = handler.name().toLowerCase(Locale.ROOT);
+            for (double quantile : QUANTILES) {
+                sb.append("hitborder_handler_latency_seconds{handler=\"").append(label)
+                        .append("\",quantile=\"").append(quantile).append("\"} ")
+                        .append(snapshot.getPercentile(quantile) / 1e9).append('\n');
+            }
+            sb.append("hitborder_handler_latency_seconds_count{handler=\"").append(label).append("\"} ")
+                    .append(snapshot.getCount()).append('\n');
+        }
+        family(sb, "hitborder_handler_latency_max_seconds", "gauge", "seconds", "Slowest handler call");
+        for (PerfMonitor.Handler handler : PerfMonitor.Handler.values()) {
+            sb.append("hitborder_handler_latency_max_seconds{handler=\"")
+                    .append(handler.name().toLowerCase(Locale.ROOT)).append("\"} ")
+                    .append(perfMonitor.getSnapshot(handler).getMax() / 1e9).append('\n');
+        }
+
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+
+    private static void family(StringBuilder sb, String name, String type, String unit, String help) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        if (unit != null) {
+            sb.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+        }
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class BorderSample {
+        private final String world;
+        private final double size;
+        private final double target;
+
+        private BorderSample(String world, double size, double target) {
+            this.world = world;
+            this.size = size;
+            this.target = target;
+        }
+    }
+}
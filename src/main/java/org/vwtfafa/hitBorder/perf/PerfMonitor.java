@@ -0,0 +1,177 @@
+package org.vwtfafa.hitBorder.perf;
+
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional instrumentation of HitBorder's event and command handlers, shown by
+ * {@code /hitborder perf} and served by the {@link OpenMetricsEndpoint}.
+ * <p>
+ * Handlers call {@link #start()} on entry and {@link #stop(Handler, long)} on exit. The monitor
+ * is enabled by {@code performance.instrumentation} or {@code metrics.endpoint.enabled}; while
+ * it is off, {@code start()} is a single volatile read and {@code stop} returns immediately, so
+ * the cost of the disabled instrumentation is negligible.
+ * While it is on, every call records its latency in a {@link LatencyHistogram} and every player
+ * damage event counts its {@link DamageOutcome}, growth is counted per damage cause and every
+ * notification broadcast counts its recipients. All recording is lock-free and safe from any
+ * thread.
+ */
+public final class PerfMonitor {
+    /**
+     * Returned by {@link #start()} while the instrumentation is disabled.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    public enum Handler {
+        DAMAGE("damage"),
+        BLOCK_BREAK("block break"),
+        BLOCK_PLACE("block place"),
+        JOIN("join"),
+        RESPAWN("respawn"),
+        COMMAND("command");
+
+        private final String displayName;
+
+        Handler(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Handler.values().length];
+    private final LongAdder[] outcomes = new LongAdder[DamageOutcome.values().length];
+    private final LongAdder[] growthByCause = new LongAdder[DamageCause.values().length];
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder broadcastRecipients = new LongAdder();
+    private volatile boolean enabled;
+    private volatile long resetAt = System.currentTimeMillis();
+
+    public PerfMonitor() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+        for (int i = 0; i < growthByCause.length; i++) {
+            growthByCause[i] = new LongAdder();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The start timestamp to pass to {@link #stop(Handler, long)}, or {@link #NOT_TIMED}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the latency of one handler call.
+     * @param handler The handler that ran
+     * @param start The value {@link #start()} returned on entry
+     */
+    public void stop(Handler handler, long start) {
+        if (start != NOT_TIMED) {
+            histograms[handler.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts the decision taken for one player damage event.
+     * @param outcome The outcome
+     * @param cause The damage cause, counted if the border grew
+     * @param start The value {@link #start()} returned on entry; nothing is counted if untimed
+     */
+    public void count(DamageOutcome outcome, DamageCause cause, long start) {
+        if (start != NOT_TIMED) {
+            outcomes[outcome.ordinal()].increment();
+            if (outcome == DamageOutcome.GROWTH) {
+                growthByCause[cause.ordinal()].increment();
+            }
+        }
+    }
+
+    /**
+     * Counts one notification broadcast.
+     * @param recipients The number of players it was sent to
+     */
+    public void countBroadcast(int recipients) {
+        if (enabled) {
+            broadcasts.increment();
+            broadcastRecipients.add(recipients);
+        }
+    }
+
+    public LatencyHistogram.Snapshot getSnapshot(Handler handler) {
+        return histograms[handler.ordinal()].snapshot();
+    }
+
+    /**
+     * @return The count of every damage outcome, in declaration order
+     */
+    public Map<DamageOutcome, Long> getOutcomes() {
+        Map<DamageOutcome, Long> result = new EnumMap<>(DamageOutcome.class);
+        for (DamageOutcome outcome : DamageOutcome.values()) {
+            result.put(outcome, outcomes[outcome.ordinal()].sum());
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of growth events per damage cause, only causes that occurred
+     */
+    public Map<DamageCause, Long> getGrowthByCause() {
+        Map<DamageCause, Long> result = new EnumMap<>(DamageCause.class);
+        for (DamageCause cause : DamageCause.values()) {
+            long count = growthByCause[cause.ordinal()].sum();
+            if (count > 0) {
+                result.put(cause, count);
+            }
+        }
+        return result;
+    }
+
+    public long getBroadcasts() {
+        return broadcasts.sum();
+    }
+
+    public long getBroadcastRecipients() {
+        return broadcastRecipients.sum();
+    }
+
+    /**
+     * @return When the statistics were last reset, in epoch milliseconds
+     */
+    public long getResetAt() {
+        return resetAt;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (LongAdder adder : outcomes) {
+            adder.reset();
+        }
+        for (LongAdder adder : growthByCause) {
+            adder.reset();
+        }
+        broadcasts.reset();
+        broadcastRecipients.reset();
+        resetAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,69 @@
+package org.vwtfafa.hitBorder.protection;
+
+/**
+ * An immutable, axis-aligned box of protected blocks. All bounds are inclusive block
+ * coordinates.
+ */
+public final class ProtectionRegion {
+    private final String name;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    public ProtectionRegion(String name, int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.name = name;
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    /**
+     * Creates a region covering all heights.
+     */
+    public static ProtectionRegion column(String name, int x1, int z1, int x2, int z2) {
+        return new ProtectionRegion(name, x1, Integer.MIN_VALUE, z1, x2, Integer.MAX_VALUE, z2);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ && y >= minY && y <= maxY;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + minX + ", " + minZ + "] - [" + maxX + ", " + maxZ + "]";
+    }
+}
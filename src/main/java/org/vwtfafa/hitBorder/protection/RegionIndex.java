@@ -0,0 +1,189 @@
+package org.vwtfafa.hitBorder.protection;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable spatial index of the {@link ProtectionRegion}s of one world.
+ * <p>
+ * Every region is registered under the keys of all chunks it touches in an open-addressing
+ * {@code long -> ProtectionRegion[]} table. A lookup hashes the chunk coordinates of the block,
+ * so blocks outside any protected chunk are rejected with a single probe and no allocation.
+ * Regions spanning more than {@link #MAX_INDEXED_CHUNKS} chunks are not indexed per chunk but
+ * checked by their bounds on every lookup. The combined bounds of all regions are kept for
+ * cheap rejection of area events such as explosions.
+ */
+public final class RegionIndex {
+    public static final RegionIndex EMPTY = new RegionIndex(Collections.emptyList(), new long[0],
+            new ProtectionRegion[0][], new ProtectionRegion[0]);
+
+    static final int MAX_INDEXED_CHUNKS = 1 << 14;
+    private static final ProtectionRegion[] NONE = new ProtectionRegion[0];
+
+    private final List<ProtectionRegion> regions;
+    // Open addressing with linear probing; a null value marks an empty slot
+    private final long[] keys;
+    private final ProtectionRegion[][] values;
+    private final int mask;
+    private final ProtectionRegion[] large;
+    // Combined XZ bounds of all regions; inverted (min > max) when there are none
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+
+    private RegionIndex(List<ProtectionRegion> regions, long[] keys, ProtectionRegion[][] values,
+                        ProtectionRegion[] large) {
+        this.regions = regions;
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.large = large;
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (ProtectionRegion region : regions) {
+            minX = Math.min(minX, region.getMinX());
+            minZ = Math.min(minZ, region.getMinZ());
+            maxX = Math.max(maxX, region.getMaxX());
+            maxZ = Math.max(maxZ, region.getMaxZ());
+        }
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Builds the index for a set of regions.
+     * @param regions The regions of one world
+     * @return The index
+     */
+    public static RegionIndex build(List<ProtectionRegion> regions) {
+        if (regions.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<ProtectionRegion> large = new ArrayList<>();
+        List<Long> chunkKeys = new ArrayList<>();
+        List<ProtectionRegion> chunkRegions = new ArrayList<>();
+        for (ProtectionRegion region : regions) {
+            int minChunkX = region.getMinX() >> 4;
+            int maxChunkX = region.getMaxX() >> 4;
+            int minChunkZ = region.getMinZ() >> 4;
+            int maxChunkZ = region.getMaxZ() >> 4;
+            long chunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+            if (chunks > MAX_INDEXED_CHUNKS) {
+                large.add(region);
+                continue;
+            }
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    chunkKeys.add(chunkKey(cx, cz));
+                    chunkRegions.add(region);
+                }
+            }
+        }
+
+        // Power-of-two capacity with a load factor of at most 0.5
+        int capacity = Integer.highestOneBit(Math.max(8, chunkKeys.size() * 2 - 1)) << 1;
+        long[] keys = new long[capacity];
+        ProtectionRegion[][] values = new ProtectionRegion[capacity][];
+        int mask = capacity - 1;
+        for (int i = 0; i < chunkKeys.size(); i++) {
+            long key = chunkKeys.get(i);
+            int slot = hash(key) & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            ProtectionRegion[] existing = values[slot];
+            if (existing == null) {
+                keys[slot] = key;
+                values[slot] = new ProtectionRegion[] {chunkRegions.get(i)};
+            } else {
+                ProtectionRegion[] grown = new ProtectionRegion[existing.length + 1];
+                System.arraycopy(existing, 0, grown, 0, existing.length);
+                grown[existing.length] = chunkRegions.get(i);
+                values[slot] = grown;
+            }
+        }
+
+        return new RegionIndex(Collections.unmodifiableList(new ArrayList<>(regions)), keys, values,
+                large.toArray(NONE));
+    }
+
+    /**
+     * @return The first region containing the block, or null if the block is not protected
+     */
+    @Nullable
+    public ProtectionRegion find(int x, int y, int z) {
+        for (ProtectionRegion region : candidates(x >> 4, z >> 4)) {
+            if (region.contains(x, y, z)) {
+                return region;
+            }
+        }
+        for (ProtectionRegion region : large) {
+            if (region.contains(x, y, z)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    public boolean isProtected(int x, int y, int z) {
+        return find(x, y, z) != null;
+    }
+
+    /**
+     * Returns the regions registered for one chunk. The returned array is shared and must not
+     * be modified. Regions too large to be indexed per chunk are not included.
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return The candidate regions, possibly empty
+     */
+    public ProtectionRegion[] candidates(int chunkX, int chunkZ) {
+        if (values.length == 0) {
+            return NONE;
+        }
+        long key = chunkKey(chunkX, chunkZ);
+        int slot = hash(key) & mask;
+        ProtectionRegion[] found;
+        while ((found = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return found;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks whether a block area may touch any region, using only the combined bounds.
+     * @return false if the area certainly does not overlap any region
+     */
+    public boolean mayIntersect(int areaMinX, int areaMinZ, int areaMaxX, int areaMaxZ) {
+        // The inverted bounds of an empty index still overlap an area spanning the whole int range
+        return !regions.isEmpty() && areaMaxX >= minX && areaMinX <= maxX && areaMaxZ >= minZ && areaMinZ <= maxZ;
+    }
+
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+
+    public List<ProtectionRegion> getRegions() {
+        return regions;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
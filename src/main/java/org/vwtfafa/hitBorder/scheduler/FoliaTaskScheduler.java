@@ -0,0 +1,80 @@
+package org.vwtfafa.hitBorder.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskScheduler} for Folia, backed by the global region, region, entity and async
+ * schedulers. Folia rejects delays below one tick, so delays are raised to at least one.
+ */
+final class FoliaTaskScheduler implements TaskScheduler {
+    private final Plugin plugin;
+
+    FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isFolia() {
+        return true;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    @Override
+    public void executeGlobal(Runnable task) {
+        if (Bukkit.isGlobalTickThread()) {
+            task.run();
+        } else {
+            runGlobal(task);
+        }
+    }
+
+    @Override
+    public TaskHandle runGlobalLater(Runnable task, long delayTicks) {
+        ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler()
+                .runDelayed(plugin, t -> task.run(), Math.max(1L, delayTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, t -> task.run(), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void executeForEntity(Entity entity, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(entity)) {
+            task.run();
+        } else {
+            entity.getScheduler().execute(plugin, task, null, 1L);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> callAtLocation(Location location, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (Bukkit.isOwnedByCurrentRegion(location)) {
+            BukkitTaskScheduler.complete(future, task);
+        } else {
+            Bukkit.getRegionScheduler().execute(plugin, location, () -> BukkitTaskScheduler.complete(future, task));
+        }
+        return future;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getAsyncScheduler().runNow(plugin, t -> task.run());
+    }
+}
@@ -0,0 +1,80 @@
+package org.vwtfafa.hitBorder.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Schedules HitBorder's work on the right thread for the running server.
+ * <p>
+ * On Folia, global work (world borders, periodic tasks) runs on the global region scheduler,
+ * work on an entity on that entity's scheduler and work at a location on the owning region's
+ * scheduler. On other servers everything runs on the main thread through the Bukkit scheduler.
+ * Use {@link #create(Plugin)} to get the implementation matching the server.
+ */
+public interface TaskScheduler {
+
+    /**
+     * @param plugin The owning plugin
+     * @return A Folia scheduler if the server is region-threaded, a Bukkit scheduler otherwise
+     */
+    static TaskScheduler create(Plugin plugin) {
+        return isFoliaServer() ? new FoliaTaskScheduler(plugin) : new BukkitTaskScheduler(plugin);
+    }
+
+    /**
+     * @return true if the server runs Folia's regionised multithreading
+     */
+    static boolean isFoliaServer() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    boolean isFolia();
+
+    /**
+     * Runs a task on the global thread during the next tick.
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Runs a task on the global thread: immediately if the caller already is on it,
+     * otherwise during the next tick.
+     */
+    void executeGlobal(Runnable task);
+
+    TaskHandle runGlobalLater(Runnable task, long delayTicks);
+
+    TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the thread that owns the entity: immediately if the caller already owns
+     * it, otherwise as soon as possible. Dropped if the entity is removed first.
+     */
+    void executeForEntity(Entity entity, Runnable task);
+
+    /**
+     * Computes a value on the thread that owns the given location.
+     * @return A future completed with the value, or exceptionally if the task failed
+     */
+    <T> CompletableFuture<T> callAtLocation(Location location, Supplier<T> task);
+
+    /**
+     * Runs a task on a background thread.
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * A scheduled task that can be cancelled.
+     */
+    interface TaskHandle {
+        void cancel();
+    }
+}
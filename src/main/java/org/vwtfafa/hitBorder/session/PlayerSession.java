@@ -0,0 +1,83 @@
+package org.vwtfafa.hitBorder.session;
+
+import java.util.UUID;
+
+/**
+ * Compact per-player state kept for as long as the player is online.
+ * <p>
+ * Timestamps are server ticks (see {@link org.bukkit.Bukkit#getCurrentTick()}) stored as
+ * primitives, so recording a growth never boxes. Damage and permission events update the
+ * session on the thread that owns the player (the main thread, or the player's region thread on
+ * Folia, which changes as the player moves between regions); other threads, such as the global
+ * region saving the border state, read it. The fields are volatile so those reads see the latest
+ * values. The counters are only incremented from damage events, one at a time per player, so
+ * they need no atomic increments; the other fields are only ever replaced as a whole.
+ */
+public final class PlayerSession {
+    /** Marker for "never happened"; far enough in the past that no cooldown can still be active. */
+    public static final int NEVER = Integer.MIN_VALUE / 2;
+
+    private final UUID uniqueId;
+    private volatile int lastGrowthTick = NEVER;
+    private volatile int growthCount;
+    private volatile int damageEventCount;
+    private volatile boolean bypass;
+
+    PlayerSession(UUID uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * @param currentTick The current server tick
+     * @param cooldownTicks The growth cooldown in ticks
+     * @return The remaining cooldown in ticks, or 0 if the player may trigger growth again
+     */
+    public int getRemainingCooldown(int currentTick, int cooldownTicks) {
+        int elapsed = currentTick - lastGrowthTick;
+        return elapsed >= cooldownTicks ? 0 : cooldownTicks - elapsed;
+    }
+
+    public int getLastGrowthTick() {
+        return lastGrowthTick;
+    }
+
+    /**
+     * Records that this player's damage grew the border.
+     * @param currentTick The current server tick
+     */
+    public void recordGrowth(int currentTick) {
+        lastGrowthTick = currentTick;
+        growthCount++;
+    }
+
+    public void setLastGrowthTick(int tick) {
+        lastGrowthTick = tick;
+    }
+
+    public int getGrowthCount() {
+        return growthCount;
+    }
+
+    public void recordDamageEvent() {
+        damageEventCount++;
+    }
+
+    public int getDamageEventCount() {
+        return damageEventCount;
+    }
+
+    /**
+     * @return The cached {@code hitborder.bypass} permission state
+     */
+    public boolean isBypass() {
+        return bypass;
+    }
+
+    void setBypass(boolean bypass) {
+        this.bypass = bypass;
+    }
+}
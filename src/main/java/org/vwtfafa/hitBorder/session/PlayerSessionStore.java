@@ -0,0 +1,131 @@
+package org.vwtfafa.hitBorder.session;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.config.BorderSettings;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds one {@link PlayerSession} per online player.
+ * <p>
+ * Sessions are created on join and evicted on quit, so memory stays proportional to the number
+ * of online players. The store is owned by the plugin rather than by a listener, so cooldowns
+ * survive {@code /hitborder reload}. Backed by concurrent maps, because on Folia each player's
+ * events run on the thread of the region the player is in; see {@link PlayerSession} for the
+ * threading rules of a single session.
+ */
+public class PlayerSessionStore implements Listener {
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    // Growth ticks restored from the last border state snapshot, applied when the player joins;
+    // discarded once the longest cooldown has passed, so players who never return are not kept
+    private final Map<UUID, Integer> restoredGrowthTicks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the session of an online player, creating it if the join event was missed
+     * (e.g. the plugin was enabled while the player was already online).
+     * @param player The player
+     * @return The player's session
+     */
+    public PlayerSession get(@NotNull Player player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session == null) {
+            session = create(player);
+        }
+        return session;
+    }
+
+    @Nullable
+    public PlayerSession getIfPresent(UUID uniqueId) {
+        return sessions.get(uniqueId);
+    }
+
+    public Collection<PlayerSession> getAll() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Creates sessions for all players that are already online.
+     */
+    public void loadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            get(player);
+        }
+    }
+
+    /**
+     * Restores growth cooldowns from a saved snapshot. Online players are updated immediately,
+     * everyone else when they join.
+     * @param lastGrowthTicks The last growth tick per player, relative to the current tick
+     */
+    public void restoreLastGrowthTicks(Map<UUID, Integer> lastGrowthTicks) {
+        for (Map.Entry<UUID, Integer> entry : lastGrowthTicks.entrySet()) {
+            PlayerSession session = sessions.get(entry.getKey());
+            if (session != null) {
+                session.setLastGrowthTick(entry.getValue());
+            } else {
+                restoredGrowthTicks.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drops the restored cooldowns of players that have not joined yet. Called once the longest
+     * growth cooldown has passed since the restore, when none of them can still be running.
+     */
+    public void discardRestoredGrowthTicks() {
+        restoredGrowthTicks.clear();
+    }
+
+    private PlayerSession create(Player player) {
+        PlayerSession session = new PlayerSession(player.getUniqueId());
+        Integer restored = restoredGrowthTicks.remove(player.getUniqueId());
+        if (restored != null) {
+            session.setLastGrowthTick(restored);
+        }
+        refreshFlags(player, session);
+        sessions.put(player.getUniqueId(), session);
+        return session;
+    }
+
+    private void refreshFlags(Player player, PlayerSession session) {
+        session.setBypass(player.hasPermission(BorderSettings.BYPASS_PERMISSION));
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        create(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        sessions.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Fired whenever the player's permissions are recalculated; refreshes the cached flags.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPermissionsRecalculated(PlayerCommandSendEvent event) {
+        PlayerSession session = sessions.get(event.getPlayer().getUniqueId());
+        if (session != null) {
+            refreshFlags(event.getPlayer(), session);
+        }
+    }
+}
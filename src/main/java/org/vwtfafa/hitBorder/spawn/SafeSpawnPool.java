@@ -0,0 +1,344 @@
+package org.vwtfafa.hitBorder.spawn;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+
+/**
+ * Keeps a small pool of verified safe spawn points inside the border of every border world,
+ * so joins and respawns never look up the terrain synchronously.
+ * <p>
+ * Every border transition ({@link #onBorderChanged(BorderController)}) drops the pooled points
+ * outside the new border and tops the pool up in the background; a slow repeating task retries
+ * failed candidates and picks up new worlds and pool sizes. Candidate chunks are loaded with
+ * Paper's {@link World#getChunkAtAsync(int, int)}, and the column is only inspected once its
+ * chunk is loaded. A point is safe if it stands on a solid block that is not leaves, lava, magma,
+ * fire or similar, with two free non-liquid blocks above; in worlds with a ceiling (the Nether)
+ * the column is scanned down from below the roof. {@link #get(World)} never touches the terrain.
+ * Maintenance runs on the main thread (the global region on Folia, where the chunk callbacks run
+ * on the owning region); the pools are guarded by this object's lock.
+ */
+public class SafeSpawnPool {
+    private static final long CHECK_PERIOD_TICKS = 200L;
+    private static final int CANDIDATE_RANGE = 32;
+    private static final int BORDER_MARGIN = 2;
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final HitBorder plugin;
+    private final Map<World, WorldPool> pools = new IdentityHashMap<>();
+    private TaskScheduler.TaskHandle task;
+
+    public SafeSpawnPool(HitBorder plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (task == null) {
+            task = plugin.getTaskScheduler().runGlobalTimer(this::maintain, 1L, CHECK_PERIOD_TICKS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pools.clear();
+    }
+
+    /**
+     * Returns the next pooled safe location of a world, cycling through the pool. Points that
+     * are no longer inside the world border are dropped and skipped.
+     * @param world The world
+     * @return A safe location inside the border, or null if none is known yet
+     */
+    @Nullable
+    public synchronized Location get(World world) {
+        WorldPool pool = pools.get(world);
+        if (pool == null) {
+            return null;
+        }
+        WorldBorder border = world.getWorldBorder();
+        while (pool.count > 0) {
+            if (pool.cursor >= pool.count) {
+                pool.cursor = 0;
+            }
+            Location location = pool.points[pool.cursor];
+            if (border.isInside(location)) {
+                pool.cursor++;
+                // Callers may modify the returned location
+                return location.clone();
+            }
+            pool.removeAt(pool.cursor);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the next pooled safe location of a world that is inside the given border, which
+     * may be a player's virtual border; points outside it are skipped but kept for others.
+     * @param world The world
+     * @param border The border the location has to be inside of
+     * @return A safe location inside the border, or null if none is known
+     */
+    @Nullable
+    public synchronized Location get(World world, WorldBorder border) {
+        WorldPool pool = pools.get(world);
+        if (pool == null) {
+            return null;
+        }
+        for (int i = 0; i < pool.count; i++) {
+            if (pool.cursor >= pool.count) {
+                pool.cursor = 0;
+            }
+            Location location = pool.points[pool.cursor++];
+            if (border.isInside(location)) {
+                return location.clone();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the pooled points of a world that are outside the border it is transitioning to and
+     * starts refilling the pool. Called whenever a transition is started through the controller.
+     * @param controller The controller of the world
+     */
+    public synchronized void onBorderChanged(BorderController controller) {
+        WorldPool pool = pools.get(controller.getWorld());
+        if (pool == null) {
+            return;
+        }
+        WorldBorder border = controller.getWorld().getWorldBorder();
+        pool.evictOutside(border.getCenter(), getUsableHalf(controller));
+        refill(controller, pool);
+    }
+
+    /**
+     * @return The number of pooled locations of a world
+     */
+    public synchronized int size(World world) {
+        WorldPool pool = pools.get(world);
+        return pool == null ? 0 : pool.count;
+    }
+
+    private synchronized void maintain() {
+        int poolSize = plugin.getConfigManager().getSettings().getSafeSpawnPoolSize();
+
+        // Drop pools of worlds that are no longer border worlds
+        Iterator<World> it = pools.keySet().iterator();
+        while (it.hasNext()) {
+            if (poolSize == 0 || plugin.getBorderManager().get(it.next()) == null) {
+                it.remove();
+            }
+        }
+        if (poolSize == 0) {
+            return;
+        }
+
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            WorldPool pool = pools.get(controller.getWorld());
+            if (pool == null || pool.points.length != poolSize) {
+                pool = new WorldPool(poolSize);
+                pools.put(controller.getWorld(), pool);
+            }
+            pool.evictOutside(controller.getWorld().getWorldBorder().getCenter(), getUsableHalf(controller));
+            refill(controller, pool);
+        }
+    }
+
+    private void refill(BorderController controller, WorldPool pool) {
+        while (pool.count + pool.inFlight < pool.points.length && pool.inFlight < MAX_IN_FLIGHT) {
+            probe(controller, pool);
+        }
+    }
+
+    /**
+     * @return Half the side length of the square candidates may lie in: the current border, or
+     *         the target of a running transition if that is smaller, minus a safety margin. In
+     *         the virtual modes the minimum size, which every player and team border contains.
+     */
+    private static double getUsableHalf(BorderController controller) {
+        double size = controller.getWorld().getWorldBorder().getSize();
+        if (controller.isTransitioning(Bukkit.getCurrentTick())) {
+            size = Math.min(size, controller.getTargetDiameter());
+        }
+        if (controller.getSettings().getBorderMode() != BorderMode.WORLD) {
+            size = Math.min(size, controller.getSettings().getMinDiameter());
+        }
+        return Math.max(0, size / 2 - BORDER_MARGIN);
+    }
+
+    private void probe(BorderController controller, WorldPool pool) {
+        World world = controller.getWorld();
+        WorldSettings worldSettings = controller.getSettings();
+        Location center = world.getWorldBorder().getCenter();
+        double half = getUsableHalf(controller);
+
+        // Prefer the configured spawn, then random points around it (or the border center)
+        double originX = worldSettings.getSpawnX();
+        double originZ = worldSettings.getSpawnZ();
+        if (Math.abs(originX - center.getX()) > half || Math.abs(originZ - center.getZ()) > half) {
+            originX = center.getX();
+            originZ = center.getZ();
+        }
+        int x;
+        int z;
+        if (pool.count == 0 && pool.inFlight == 0) {
+            x = (int) Math.floor(originX);
+            z = (int) Math.floor(originZ);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double range = Math.min(CANDIDATE_RANGE, half);
+            x = (int) Math.floor(clamp(originX + random.nextDouble(-range, range + 1e-9), center.getX(), half));
+            z = (int) Math.floor(clamp(originZ + random.nextDouble(-range, range + 1e-9), center.getZ(), half));
+        }
+
+        pool.inFlight++;
+        world.getChunkAtAsync(x >> 4, z >> 4).whenComplete((chunk, error) -> {
+            Location safe = null;
+            if (error != null) {
+                plugin.getLogger().log(Level.FINE, "Failed to load spawn candidate chunk", error);
+            } else {
+                safe = check(world, x, z);
+            }
+            synchronized (this) {
+                pool.inFlight--;
+                if (safe != null && pools.get(world) == pool) {
+                    pool.add(safe);
+                }
+            }
+        });
+    }
+
+    private static double clamp(double value, double center, double half) {
+        return Math.max(center - half, Math.min(center + half, value));
+    }
+
+    /**
+     * Inspects one column of a loaded chunk. Without a ceiling only the highest block is
+     * considered; with one, the column is scanned down from below the roof for the first safe
+     * block with two free blocks above, since the highest block would be the roof itself.
+     * @return The location standing on the ground found, or null if it is not safe
+     */
+    @Nullable
+    private static Location check(World world, int x, int z) {
+        Block ground;
+        if (world.hasCeiling()) {
+            ground = findCeilingGround(world, x, z);
+            if (ground == null) {
+                return null;
+            }
+        } else {
+            ground = world.getHighestBlockAt(x, z);
+            if (!isSafeGround(ground.getType())
+                    || !isFree(ground.getRelative(0, 1, 0)) || !isFree(ground.getRelative(0, 2, 0))) {
+                return null;
+            }
+        }
+        Location location = new Location(world, x + 0.5, ground.getY() + 1, z + 0.5);
+        return world.getWorldBorder().isInside(location) ? location : null;
+    }
+
+    /**
+     * Scans a column down from below the logical height of a world with a ceiling.
+     * @return The highest safe ground block with two free blocks above, or null
+     */
+    @Nullable
+    private static Block findCeilingGround(World world, int x, int z) {
+        int top = Math.min(world.getLogicalHeight(), world.getMaxHeight()) - 1;
+        int freeAbove = 0;
+        for (int y = top; y >= world.getMinHeight(); y--) {
+            Block block = world.getBlockAt(x, y, z);
+            if (isFree(block)) {
+                freeAbove++;
+                continue;
+            }
+            if (freeAbove >= 2 && isSafeGround(block.getType())) {
+                return block;
+            }
+            freeAbove = 0;
+        }
+        return null;
+    }
+
+    private static boolean isSafeGround(Material type) {
+        if (!type.isSolid() || Tag.LEAVES.isTagged(type)) {
+            return false;
+        }
+        switch (type) {
+            case LAVA:
+            case WATER:
+            case MAGMA_BLOCK:
+            case CACTUS:
+            case CAMPFIRE:
+            case SOUL_CAMPFIRE:
+            case POWDER_SNOW:
+            case SWEET_BERRY_BUSH:
+            case POINTED_DRIPSTONE:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isFree(Block block) {
+        return block.isPassable() && !block.isLiquid() && block.getType() != Material.FIRE
+                && block.getType() != Material.SOUL_FIRE && block.getType() != Material.POWDER_SNOW;
+    }
+
+    /**
+     * Fixed-size ring of safe points of one world.
+     */
+    private static final class WorldPool {
+        private final Location[] points;
+        private int count;
+        private int cursor;
+        private int inFlight;
+
+        private WorldPool(int size) {
+            this.points = new Location[size];
+        }
+
+        private void add(Location location) {
+            if (count < points.length) {
+                points[count++] = location;
+            }
+        }
+
+        private void removeAt(int index) {
+            points[index] = points[--count];
+            points[count] = null;
+        }
+
+        private void evictOutside(Location center, double half) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (Math.abs(points[i].getX() - center.getX()) <= half
+                        && Math.abs(points[i].getZ() - center.getZ()) <= half) {
+                    points[kept++] = points[i];
+                }
+            }
+            for (int i = kept; i < count; i++) {
+                points[i] = null;
+            }
+            count = kept;
+        }
+    }
+}
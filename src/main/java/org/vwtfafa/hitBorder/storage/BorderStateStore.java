@@ -0,0 +1,312 @@
+package org.vwtfafa.hitBorder.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.WorldBorder;
+import org.vwtfafa.hitBorder.HitBorder;
+import org.vwtfafa.hitBorder.border.BorderController;
+import org.vwtfafa.hitBorder.config.BorderMode;
+import org.vwtfafa.hitBorder.config.WorldSettings;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
+import org.vwtfafa.hitBorder.session.PlayerSession;
+import org.vwtfafa.hitBorder.util.AtomicFiles;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Persists the runtime border state (size, center, running transition) of every border world,
+ * the sizes of its player and team borders in the virtual border modes, and the growth
+ * cooldowns of online players to {@code border-state.json}, so a restart or
+ * crash does not reset the borders to {@code initial-size}.
+ * <p>
+ * Snapshots are captured on the main thread, or the global region on Folia (a handful of
+ * numbers per world), and serialised
+ * and written on a single background thread with {@link AtomicFiles}, so a save never blocks a
+ * tick and the file is never left half-written. Saves happen every
+ * {@code performance.save-interval} minutes and when the plugin is disabled.
+ */
+public class BorderStateStore {
+    private static final String FILE_NAME = "border-state.json";
+    private static final int FORMAT_VERSION = 1;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final HitBorder plugin;
+    private final Path file;
+    private final Gson gson = new Gson();
+    private final ExecutorService writer;
+
+    // Saved states of worlds that have not been restored yet (e.g. not loaded so far)
+    private final Map<String, JsonObject> pendingWorlds = new HashMap<>();
+    private TaskScheduler.TaskHandle saveTask;
+    private int saveIntervalMinutes = -1;
+
+    public BorderStateStore(HitBorder plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HitBorder-State-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the last snapshot from disk. World states are kept until their world is
+     * {@link #restore(BorderController) restored}; cooldowns are handed to the session store.
+     */
+    public void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+
+        JsonObject root;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read " + FILE_NAME + ", borders start at their initial size", e);
+            return;
+        }
+
+        if (root.has("worlds")) {
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("worlds").entrySet()) {
+                if (entry.getValue().isJsonObject()) {
+                    pendingWorlds.put(entry.getKey(), entry.getValue().getAsJsonObject());
+                }
+            }
+        }
+
+        if (root.has("cooldowns")) {
+            int currentTick = Bukkit.getCurrentTick();
+            Map<UUID, Integer> lastGrowthTicks = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("cooldowns").entrySet()) {
+                try {
+                    lastGrowthTicks.put(UUID.fromString(entry.getKey()), currentTick - entry.getValue().getAsInt());
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("Ignoring invalid cooldown entry in " + FILE_NAME + ": " + entry.getKey());
+                }
+            }
+            plugin.getSessionStore().restoreLastGrowthTicks(lastGrowthTicks);
+            // Players who do not come back within one cooldown have nothing left to restore
+            plugin.getTaskScheduler().runGlobalLater(plugin.getSessionStore()::discardRestoredGrowthTicks,
+                    Math.max(1, getMaxCooldownTicks()));
+        }
+    }
+
+    /**
+     * Restores the saved state of all loaded border worlds.
+     */
+    public void restoreAll() {
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            restore(controller);
+        }
+    }
+
+    /**
+     * Restores the saved state of one world, if there is one. Sizes are clamped to the
+     * currently configured bounds.
+     * @param controller The controller of a freshly initialized world
+     * @return true if a saved state was applied
+     */
+    public boolean restore(BorderController controller) {
+        String worldName = controller.getWorld().getName();
+        JsonObject state = pendingWorlds.remove(worldName);
+        if (state == null) {
+            return false;
+        }
+        if (controller.getSettings().getBorderMode() != BorderMode.WORLD) {
+            return restoreVirtual(controller, state);
+        }
+        if (!state.has("size")) {
+            return false;
+        }
+
+        try {
+            WorldSettings worldSettings = controller.getSettings();
+            WorldBorder border = controller.getWorld().getWorldBorder();
+            if (state.has("center-x") && state.has("center-z")) {
+                border.setCenter(state.get("center-x").getAsDouble(), state.get("center-z").getAsDouble());
+            }
+            double size = clamp(state.get("size").getAsDouble(), worldSettings);
+            controller.transitionTo(size, 0);
+
+            // Resume a transition that was still running when the snapshot was taken
+            int remainingTicks = state.has("remaining-ticks") ? state.get("remaining-ticks").getAsInt() : 0;
+            if (remainingTicks > 0 && state.has("target")) {
+                double target = clamp(state.get("target").getAsDouble(), worldSettings);
+                controller.transitionTo(target, Math.max(1L, (remainingTicks + 19) / 20));
+            }
+
+            plugin.getLogger().info(String.format("Restored border in %s at %.1f blocks (radius)", worldName, size / 2));
+            return true;
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Invalid saved border state for " + worldName + ", using the initial size", e);
+            return false;
+        }
+    }
+
+    /**
+     * Hands the saved player and team border sizes of a world in a virtual mode to the
+     * {@link org.vwtfafa.hitBorder.border.VirtualBorderManager}. The world border itself stays
+     * at its maximum in these modes.
+     */
+    private boolean restoreVirtual(BorderController controller, JsonObject state) {
+        if (!state.has("virtual") || !state.get("virtual").isJsonObject()) {
+            return false;
+        }
+        Map<String, Double> sizes = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : state.getAsJsonObject("virtual").entrySet()) {
+            try {
+                sizes.put(entry.getKey(), clamp(entry.getValue().getAsDouble(), controller.getSettings()));
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("Ignoring invalid virtual border entry in " + FILE_NAME + ": " + entry.getKey());
+            }
+        }
+        plugin.getVirtualBorderManager().restoreSizes(controller.getWorld(), sizes);
+        plugin.getLogger().info(String.format("Restored %d virtual borders in %s", sizes.size(), controller.getWorld().getName()));
+        return true;
+    }
+
+    private static double clamp(double diameter, WorldSettings worldSettings) {
+        return Math.max(worldSettings.getMinDiameter(), Math.min(worldSettings.getMaxDiameter(), diameter));
+    }
+
+    /**
+     * (Re)schedules the periodic save. Does nothing if the interval did not change.
+     * @param minutes The save interval in minutes, 0 to only save on disable
+     */
+    public void setSaveInterval(int minutes) {
+        if (minutes == saveIntervalMinutes) {
+            return;
+        }
+        saveIntervalMinutes = minutes;
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        if (minutes > 0) {
+            long period = minutes * 60L * 20L;
+            saveTask = plugin.getTaskScheduler().runGlobalTimer(this::saveAsync, period, period);
+        }
+    }
+
+    /**
+     * Captures a snapshot on the calling (main) thread and writes it in the background.
+     */
+    public void saveAsync() {
+        JsonObject snapshot = capture();
+        writer.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Stops the periodic save, writes a final snapshot and waits for all writes to finish.
+     */
+    public void close() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        saveAsync();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out while saving the border state");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonObject capture() {
+        int currentTick = Bukkit.getCurrentTick();
+        JsonObject root = new JsonObject();
+        root.addProperty("version", FORMAT_VERSION);
+        root.addProperty("saved-at", System.currentTimeMillis());
+
+        // Keep the saved state of worlds that are not loaded right now
+        JsonObject worlds = new JsonObject();
+        for (Map.Entry<String, JsonObject> entry : pendingWorlds.entrySet()) {
+            worlds.add(entry.getKey(), entry.getValue());
+        }
+        for (BorderController controller : plugin.getBorderManager().getControllers()) {
+            worlds.add(controller.getWorld().getName(), captureWorld(controller, currentTick));
+        }
+        root.add("worlds", worlds);
+
+        // Only cooldowns that are still running anywhere are worth keeping
+        int maxCooldownTicks = getMaxCooldownTicks();
+        JsonObject cooldowns = new JsonObject();
+        for (PlayerSession session : plugin.getSessionStore().getAll()) {
+            int elapsed = currentTick - session.getLastGrowthTick();
+            if (session.getLastGrowthTick() != PlayerSession.NEVER && elapsed < maxCooldownTicks) {
+                cooldowns.addProperty(session.getUniqueId().toString(), elapsed);
+            }
+        }
+        root.add("cooldowns", cooldowns);
+        return root;
+    }
+
+    /**
+     * Keeps the current state of a world that is about to be unloaded, so the next save still
+     * contains it and the next load of the world restores it.
+     * @param controller The controller of the world being unloaded
+     */
+    public void stash(BorderController controller) {
+        pendingWorlds.put(controller.getWorld().getName(), captureWorld(controller, Bukkit.getCurrentTick()));
+    }
+
+    private JsonObject captureWorld(BorderController controller, int currentTick) {
+        WorldBorder border = controller.getWorld().getWorldBorder();
+        Location center = border.getCenter();
+        JsonObject state = new JsonObject();
+        state.addProperty("size", border.getSize());
+        state.addProperty("center-x", center.getX());
+        state.addProperty("center-z", center.getZ());
+        int remainingTicks = controller.getRemainingTransitionTicks(currentTick);
+        if (remainingTicks > 0) {
+            state.addProperty("target", controller.getTargetDiameter());
+            state.addProperty("remaining-ticks", remainingTicks);
+        }
+        if (controller.getSettings().getBorderMode() != BorderMode.WORLD) {
+            JsonObject virtual = new JsonObject();
+            for (Map.Entry<String, Double> entry : plugin.getVirtualBorderManager().getSizes(controller.getWorld()).entrySet()) {
+                virtual.addProperty(entry.getKey(), entry.getValue());
+            }
+            state.add("virtual", virtual);
+        }
+        return state;
+    }
+
+    /**
+     * @return The longest growth cooldown of all configured worlds, in ticks
+     */
+    private int getMaxCooldownTicks() {
+        int maxCooldownTicks = 0;
+        for (WorldSettings worldSettings : plugin.getConfigManager().getSettings().getWorlds().values()) {
+            maxCooldownTicks = Math.max(maxCooldownTicks, worldSettings.getGrowthCooldownTicks());
+        }
+        return maxCooldownTicks;
+    }
+
+    private void write(JsonObject snapshot) {
+        try {
+            AtomicFiles.write(file, gson.toJson(snapshot));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save the border state", e);
+        }
+    }
+}
@@ -1,72 +1,241 @@
 package org.vwtfafa.hitBorder.util;
 
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
+/**
+ * Optional LuckPerms integration.
+ * <p>
+ * LuckPerms is a soft dependency, so its API is never referenced directly. All entry points are
+ * resolved once into {@link MethodHandle}s when the hook is created, and the inherited groups
+ * of each online player are cached per UUID. The cache is invalidated from LuckPerms'
+ * {@code UserDataRecalculateEvent} (subscribed reflectively) and when a player quits, so group
+ * checks on the notification path neither use reflection nor allocate after the first lookup.
+ */
 public class LuckPermsHook {
+    private static final String API_PACKAGE = "net.luckperms.api.";
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
     private final boolean available;
 
-    public LuckPermsHook() {
-        this.available = isClassPresent("net.luckperms.api.LuckPermsProvider");
+    // Resolved entry points, all adapted to Object-typed signatures
+    private MethodHandle getUser;            // (UUID) -> User, bound to the user manager
+    private MethodHandle getQueryOptions;    // (User) -> QueryOptions
+    private MethodHandle getInheritedGroups; // (User, QueryOptions) -> Collection<Group>
+    private MethodHandle getGroupName;       // (Group) -> String
+    private MethodHandle getUserUniqueId;    // (User) -> UUID
+    @Nullable
+    private Object subscription;
+    @Nullable
+    private MethodHandle closeSubscription;  // (EventSubscription) -> void
+
+    private final ConcurrentMap<UUID, Set<String>> groupCache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile Consumer<UUID> recalculationListener = uuid -> { };
+
+    public LuckPermsHook(JavaPlugin plugin, TaskScheduler scheduler) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.available = isClassPresent(API_PACKAGE + "LuckPermsProvider") && resolve();
     }
 
     public boolean isAvailable() {
         return available;
     }
 
+    /**
+     * Resolves all LuckPerms entry points and subscribes to user recalculation.
+     * @return true if the API could be linked
+     */
+    private boolean resolve() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> providerClass = Class.forName(API_PACKAGE + "LuckPermsProvider");
+            Class<?> luckPermsClass = Class.forName(API_PACKAGE + "LuckPerms");
+            Class<?> userManagerClass = Class.forName(API_PACKAGE + "model.user.UserManager");
+            Class<?> userClass = Class.forName(API_PACKAGE + "model.user.User");
+            Class<?> groupClass = Class.forName(API_PACKAGE + "model.group.Group");
+            Class<?> queryOptionsClass = Class.forName(API_PACKAGE + "query.QueryOptions");
+            Class<?> eventBusClass = Class.forName(API_PACKAGE + "event.EventBus");
+            Class<?> subscriptionClass = Class.forName(API_PACKAGE + "event.EventSubscription");
+            Class<?> recalculateEventClass = Class.forName(API_PACKAGE + "event.user.UserDataRecalculateEvent");
+
+            Object luckPerms = lookup.findStatic(providerClass, "get", MethodType.methodType(luckPermsClass)).invoke();
+            Object userManager = lookup.findVirtual(luckPermsClass, "getUserManager",
+                    MethodType.methodType(userManagerClass)).invoke(luckPerms);
+
+            getUser = lookup.findVirtual(userManagerClass, "getUser", MethodType.methodType(userClass, UUID.class))
+                    .bindTo(userManager)
+                    .asType(MethodType.methodType(Object.class, UUID.class));
+            getQueryOptions = lookup.findVirtual(userClass, "getQueryOptions", MethodType.methodType(queryOptionsClass))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            getInheritedGroups = lookup.findVirtual(userClass, "getInheritedGroups",
+                            MethodType.methodType(Collection.class, queryOptionsClass))
+                    .asType(MethodType.methodType(Collection.class, Object.class, Object.class));
+            getGroupName = lookup.findVirtual(groupClass, "getName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            getUserUniqueId = lookup.findVirtual(userClass, "getUniqueId", MethodType.methodType(UUID.class))
+                    .asType(MethodType.methodType(UUID.class, Object.class));
+            MethodHandle getEventUser = lookup.findVirtual(recalculateEventClass, "getUser", MethodType.methodType(userClass))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+
+            // eventBus.subscribe(plugin, UserDataRecalculateEvent.class, handler)
+            Object eventBus = lookup.findVirtual(luckPermsClass, "getEventBus",
+                    MethodType.methodType(eventBusClass)).invoke(luckPerms);
+            MethodHandle subscribe = lookup.findVirtual(eventBusClass, "subscribe",
+                    MethodType.methodType(subscriptionClass, Object.class, Class.class, Consumer.class));
+            Consumer<Object> handler = event -> onUserRecalculated(getEventUser, event);
+            subscription = subscribe.invoke(eventBus, plugin, recalculateEventClass, handler);
+            closeSubscription = lookup.findVirtual(subscriptionClass, "close", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            return true;
+        } catch (Throwable t) {
+            rethrowIfFatal(t);
+            plugin.getLogger().log(Level.WARNING, "Failed to link LuckPerms API, group notifications disabled", t);
+            return false;
+        }
+    }
+
+    /**
+     * Called by LuckPerms (on one of its own threads) whenever a user's data was recalculated.
+     */
+    private void onUserRecalculated(MethodHandle getEventUser, Object event) {
+        try {
+            Object user = getEventUser.invokeExact(event);
+            UUID uuid = (UUID) getUserUniqueId.invokeExact(user);
+            // Only players whose groups were looked up can be affected
+            if (groupCache.remove(uuid) != null) {
+                Consumer<UUID> listener = recalculationListener;
+                scheduler.runGlobal(() -> listener.accept(uuid));
+            }
+        } catch (Throwable t) {
+            rethrowIfFatal(t);
+            plugin.getLogger().log(Level.FINE, "Failed to handle LuckPerms recalculation", t);
+        }
+    }
+
+    /**
+     * Sets the callback that runs on the main (global) thread after a user's groups may have changed.
+     * @param listener Receives the UUID of the recalculated user
+     */
+    public void setRecalculationListener(Consumer<UUID> listener) {
+        this.recalculationListener = listener;
+    }
+
+    /**
+     * Checks whether the player inherits any of the given groups.
+     * @param player The player
+     * @param groupNames Group names, already trimmed and lower-cased
+     * @return true if the player is in at least one of the groups
+     */
     public boolean isInAnyGroup(Player player, List<String> groupNames) {
         if (!available || player == null || groupNames == null || groupNames.isEmpty()) {
             return false;
         }
 
-        try {
-            Class<?> providerClass = Class.forName("net.luckperms.api.LuckPermsProvider");
-            Object luckPerms = providerClass.getMethod("get").invoke(null);
-            if (luckPerms == null) {
+        Set<String> groups = groupCache.get(player.getUniqueId());
+        if (groups != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            // Loaded inside computeIfAbsent: an invalidation for this UUID waits until the load
+            // has been stored and then removes it, instead of being overwritten with stale groups
+            groups = groupCache.computeIfAbsent(player.getUniqueId(), this::loadGroups);
+            if (groups == null) {
                 return false;
             }
+        }
 
-            Object userManager = luckPerms.getClass().getMethod("getUserManager").invoke(luckPerms);
-            if (userManager == null) {
-                return false;
+        for (int i = 0, size = groupNames.size(); i < size; i++) {
+            if (groups.contains(groupNames.get(i))) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            Object user = userManager.getClass().getMethod("getUser", java.util.UUID.class)
-                    .invoke(userManager, player.getUniqueId());
+    /**
+     * @return The lower-cased inherited group names, or null if the user is not loaded
+     */
+    @Nullable
+    private Set<String> loadGroups(UUID uuid) {
+        try {
+            Object user = getUser.invokeExact(uuid);
             if (user == null) {
-                return false;
+                return null;
             }
+            Object queryOptions = getQueryOptions.invokeExact(user);
+            Collection<?> inherited = (Collection<?>) getInheritedGroups.invokeExact(user, queryOptions);
 
-            Method getQueryOptions = user.getClass().getMethod("getQueryOptions");
-            Object queryOptions = getQueryOptions.invoke(user);
-            if (queryOptions == null) {
-                return false;
+            Set<String> names = new HashSet<>();
+            for (Object group : inherited) {
+                if (group != null) {
+                    String name = (String) getGroupName.invokeExact(group);
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
             }
+            return Collections.unmodifiableSet(names);
+        } catch (Throwable t) {
+            rethrowIfFatal(t);
+            plugin.getLogger().log(Level.WARNING, "Failed to look up LuckPerms groups for " + uuid, t);
+            return null;
+        }
+    }
 
-            Class<?> queryOptionsClass = Class.forName("net.luckperms.api.query.QueryOptions");
-            Method getInheritedGroups = user.getClass().getMethod("getInheritedGroups", queryOptionsClass);
-            Iterable<?> groups = (Iterable<?>) getInheritedGroups.invoke(user, queryOptions);
+    /**
+     * Drops the cached groups of a player, e.g. when they quit.
+     */
+    public void invalidate(UUID uuid) {
+        groupCache.remove(uuid);
+    }
 
-            for (Object group : groups) {
-                if (group == null) {
-                    continue;
-                }
-                String groupName = String.valueOf(group.getClass().getMethod("getName").invoke(group))
-                        .toLowerCase(Locale.ROOT);
-                for (String configured : groupNames) {
-                    if (configured != null && groupName.equals(configured.toLowerCase(Locale.ROOT))) {
-                        return true;
-                    }
-                }
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Unsubscribes from LuckPerms and clears the cache.
+     */
+    public void close() {
+        if (subscription != null && closeSubscription != null) {
+            try {
+                closeSubscription.invokeExact(subscription);
+            } catch (Throwable t) {
+                rethrowIfFatal(t);
             }
-        } catch (Throwable ignored) {
-            return false;
+            subscription = null;
         }
+        groupCache.clear();
+    }
 
-        return false;
+    private static void rethrowIfFatal(Throwable t) {
+        if (t instanceof VirtualMachineError) {
+            throw (VirtualMachineError) t;
+        }
     }
 
     private boolean isClassPresent(String className) {
@@ -0,0 +1,81 @@
+package org.vwtfafa.hitBorder.util;
+
+/**
+ * Allocation-free, locale-independent fixed-point formatting for the values shown in messages.
+ * <p>
+ * Produces the same output as {@code String.format(Locale.ROOT, "%.Nf", value)}, which rounds
+ * half-up on the shortest decimal representation of the value ({@link Double#toString(double)}),
+ * so {@code 1.005} becomes {@code 1.01} although the nearest double is slightly below it, and
+ * keeps the sign of negative values that round to zero. Values whose scaled fraction is within
+ * a few ulps of one half without being exactly one half, where the binary and the decimal view
+ * can disagree, and very large values are handed to the JDK; everything else, including the
+ * exact halves border sizes commonly have, is formatted without {@link java.util.Formatter}.
+ */
+public final class NumberFormatter {
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L};
+    // Beyond this magnitude the scaled value would lose precision, fall back to the JDK
+    private static final double MAX_FAST_VALUE = 1.0e11;
+    // Distance from a rounding boundary, in ulps of the scaled value, left to the JDK
+    private static final double HALF_TOLERANCE_ULPS = 4;
+
+    private NumberFormatter() {
+    }
+
+    /**
+     * Appends {@code value} rounded half-up to {@code decimals} fractional digits, exactly like
+     * {@code String.format(Locale.ROOT, "%.Nf", value)}.
+     * @param sb The target builder
+     * @param value The value to append
+     * @param decimals Number of fractional digits (0-4)
+     * @return The given builder
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("decimals must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= MAX_FAST_VALUE) {
+            return appendJdk(sb, value, decimals);
+        }
+
+        long factor = POWERS_OF_TEN[decimals];
+        double magnitude = Math.abs(value) * factor;
+        double floor = Math.floor(magnitude);
+        long scaled;
+        if (magnitude - floor == 0.5 && Math.fma(Math.abs(value), factor, -magnitude) == 0) {
+            // Exactly a half (e.g. 12.25 to one digit), in binary and in decimal alike
+            scaled = (long) floor + 1;
+        } else if (Math.abs(magnitude - floor - 0.5) <= HALF_TOLERANCE_ULPS * Math.ulp(magnitude)) {
+            // Close to a half: only the decimal representation decides the direction
+            return appendJdk(sb, value, decimals);
+        } else {
+            scaled = Math.round(magnitude);
+        }
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            sb.append('-');
+        }
+        sb.append(scaled / factor);
+        if (decimals > 0) {
+            sb.append('.');
+            long fraction = scaled % factor;
+            // Left-pad the fraction with zeros
+            for (long p = factor / 10; p > 1 && fraction < p; p /= 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendJdk(StringBuilder sb, double value, int decimals) {
+        return sb.append(String.format(java.util.Locale.ROOT, "%." + decimals + "f", value));
+    }
+
+    /**
+     * Formats {@code value} with one fractional digit, the precision used for border sizes.
+     * @param value The value to format
+     * @return The formatted value
+     */
+    public static String format1(double value) {
+        return appendFixed(new StringBuilder(16), value, 1).toString();
+    }
+}
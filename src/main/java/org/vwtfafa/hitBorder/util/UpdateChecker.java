@@ -2,10 +2,14 @@ package org.vwtfafa.hitBorder.util;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.vwtfafa.hitBorder.scheduler.TaskScheduler;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -17,13 +21,15 @@ import java.util.logging.Level;
 
 public class UpdateChecker {
     private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
     private final String currentVersion;
     private final String githubRepo;
     private static final String API_URL = "https://api.github.com/repos/%s/releases/latest";
     private static final String USER_AGENT = "HitBorder-Update-Checker/1.0";
 
-    public UpdateChecker(JavaPlugin plugin, String githubRepo) {
+    public UpdateChecker(JavaPlugin plugin, TaskScheduler scheduler, String githubRepo) {
         this.plugin = plugin;
+        this.scheduler = scheduler;
         this.currentVersion = plugin.getDescription().getVersion();
         this.githubRepo = githubRepo;
     }
@@ -34,7 +40,7 @@ public class UpdateChecker {
             return;
         }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        scheduler.runAsync(() -> {
             try {
                 URL url = new URL(String.format(API_URL, githubRepo));
                 HttpURLConnection connection = (HttpURLConnection) url.openConnection();
@@ -105,14 +111,22 @@ public class UpdateChecker {
     }
 
     private void notifyOps(String versionNumber, String htmlUrl) {
-        Bukkit.getScheduler().runTask(plugin, () -> Bukkit.getOnlinePlayers().stream()
-                .filter(player -> player.hasPermission("hitborder.admin"))
-                .forEach(player -> {
-                    player.sendMessage(ChatColor.GOLD + "[HitBorder] " + ChatColor.YELLOW + "New version available!");
-                    player.sendMessage(ChatColor.GRAY + "Current: " + ChatColor.RED + currentVersion);
-                    player.sendMessage(ChatColor.GRAY + "New: " + ChatColor.GREEN + versionNumber);
-                    player.sendMessage(ChatColor.GRAY + "Release: " + ChatColor.AQUA + htmlUrl);
-                }));
+        Component notice = Component.text()
+                .append(Component.text("[HitBorder] ", NamedTextColor.GOLD))
+                .append(Component.text("New version available!", NamedTextColor.YELLOW))
+                .append(Component.newline())
+                .append(Component.text("Current: ", NamedTextColor.GRAY))
+                .append(Component.text(currentVersion, NamedTextColor.RED))
+                .append(Component.newline())
+                .append(Component.text("New: ", NamedTextColor.GRAY))
+                .append(Component.text(versionNumber, NamedTextColor.GREEN))
+                .append(Component.newline())
+                .append(Component.text("Release: ", NamedTextColor.GRAY))
+                .append(Component.text(htmlUrl, NamedTextColor.AQUA).clickEvent(ClickEvent.openUrl(htmlUrl)))
+                .build();
+        scheduler.runGlobal(() -> Bukkit.getServer()
+                .filterAudience(audience -> audience instanceof Player && ((Player) audience).hasPermission("hitborder.admin"))
+                .sendMessage(notice));
     }
 
     private boolean isNewerVersion(@NotNull String newVersion, @NotNull String currentVersion) {
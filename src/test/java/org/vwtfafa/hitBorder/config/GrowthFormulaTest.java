@@ -0,0 +1,104 @@
+package org.vwtfafa.hitBorder.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrowthFormulaTest {
+    private static final double EPSILON = 1e-9;
+
+    private static double eval(String source) {
+        return GrowthFormula.compile(source).evaluate(0.5, 4, 100, 1000, 10, 2);
+    }
+
+    private static String error(String source) {
+        return assertThrows(IllegalArgumentException.class, () -> GrowthFormula.compile(source)).getMessage();
+    }
+
+    @Test
+    void multiplicativeOperatorsBindTighterThanAdditive() {
+        assertEquals(7, eval("1 + 2 * 3"), EPSILON);
+        assertEquals(9, eval("(1 + 2) * 3"), EPSILON);
+        assertEquals(1, eval("10 - 6 / 2 * 3"), EPSILON);
+        assertEquals(3, eval("1 + 8 % 3"), EPSILON);
+    }
+
+    @Test
+    void additiveAndMultiplicativeOperatorsAreLeftAssociative() {
+        assertEquals(5, eval("10 - 3 - 2"), EPSILON);
+        assertEquals(2.5, eval("20 / 4 / 2"), EPSILON);
+    }
+
+    @Test
+    void powerIsRightAssociativeAndBindsTighterThanMultiplication() {
+        assertEquals(512, eval("2 ^ 3 ^ 2"), EPSILON);
+        assertEquals(18, eval("2 * 3 ^ 2"), EPSILON);
+        assertEquals(0.5, eval("2 ^ -1"), EPSILON);
+    }
+
+    @Test
+    void unaryMinusAppliesToThePower() {
+        assertEquals(-4, eval("-2 ^ 2"), EPSILON);
+        assertEquals(4, eval("(-2) ^ 2"), EPSILON);
+        assertEquals(2, eval("--2"), EPSILON);
+        assertEquals(-1, eval("3 * -amount - -0.5"), EPSILON);
+    }
+
+    @Test
+    void variablesReadTheEventValues() {
+        GrowthFormula formula = GrowthFormula.compile("amount * damage * weight + size / max + players");
+        assertEquals(0.5 * 4 * 2 + 100.0 / 1000 + 10, formula.evaluate(0.5, 4, 100, 1000, 10, 2), EPSILON);
+        assertEquals(1.5, GrowthFormula.LINEAR.evaluate(0.25, 3, 0, 0, 0, 2), EPSILON);
+    }
+
+    @Test
+    void functionsAndMaxAsVariableOrFunction() {
+        assertEquals(3, eval("sqrt(9)"), EPSILON);
+        assertEquals(2, eval("clamp(5, 0, 2)"), EPSILON);
+        assertEquals(1000, eval("max"), EPSILON);
+        assertEquals(1000, eval("max(max, size)"), EPSILON);
+        assertEquals(8, eval("POW(2, 3)"), EPSILON);
+    }
+
+    @Test
+    void functionArityIsChecked() {
+        assertEquals("sqrt() takes 1 argument, got 2 at position 1", error("sqrt(1, 2)"));
+        assertEquals("min() takes 2 arguments, got 1 at position 5", error("1 + min(1)"));
+        assertEquals("clamp() takes 3 arguments, got 0 at position 1", error("clamp()"));
+    }
+
+    @Test
+    void unknownNamesReportTheirPosition() {
+        assertEquals("unknown variable 'foo' at position 10", error("amount + foo"));
+        assertEquals("unknown function 'bogus' at position 3", error("2*bogus(1)"));
+    }
+
+    @Test
+    void syntaxErrorsReportTheirPosition() {
+        assertEquals("unexpected end of formula at position 4", error("1 +"));
+        assertEquals("expected ')' at position 7", error("(1 + 2"));
+        assertEquals("unexpected '2' at position 3", error("1 2"));
+        assertEquals("unexpected '*' at position 1", error("* 2"));
+        assertEquals("invalid number '1.2.3' at position 1", error("1.2.3"));
+    }
+
+    @Test
+    void constantSubtreesAreFolded() {
+        assertTrue(GrowthFormula.compile("2 * (3 + 4) ^ 2 - sqrt(16)").isConstant());
+        assertTrue(GrowthFormula.compile("-pi * e").isConstant());
+        assertFalse(GrowthFormula.compile("amount * (3 + 4)").isConstant());
+        assertEquals(94, eval("2 * (3 + 4) ^ 2 - sqrt(16)"), EPSILON);
+        assertEquals(3.5, eval("amount * (3 + 4)"), EPSILON);
+    }
+
+    @Test
+    void usesPlayersOnlyWhenTheFormulaReadsIt() {
+        assertTrue(GrowthFormula.compile("amount / sqrt(players)").usesPlayers());
+        assertTrue(GrowthFormula.compile("0 * PLAYERS + 1").usesPlayers());
+        assertFalse(GrowthFormula.compile("amount * damage").usesPlayers());
+        assertFalse(GrowthFormula.LINEAR.usesPlayers());
+    }
+}
@@ -0,0 +1,134 @@
+package org.vwtfafa.hitBorder.protection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionIndexTest {
+
+    @Test
+    void regionStraddlingTheOriginIsFoundInNegativeAndPositiveChunks() {
+        ProtectionRegion spawn = ProtectionRegion.column("spawn", -20, -20, 20, 20);
+        RegionIndex index = RegionIndex.build(List.of(spawn));
+
+        // Blocks -20..20 lie in chunks -2..1 on both axes
+        for (int cx = -2; cx <= 1; cx++) {
+            for (int cz = -2; cz <= 1; cz++) {
+                assertArrayEquals(new ProtectionRegion[] {spawn}, index.candidates(cx, cz));
+            }
+        }
+        assertEquals(0, index.candidates(-3, 0).length);
+        assertEquals(0, index.candidates(2, 0).length);
+        assertEquals(0, index.candidates(0, -3).length);
+
+        assertSame(spawn, index.find(-20, 64, -20));
+        assertSame(spawn, index.find(20, -64, 20));
+        assertSame(spawn, index.find(-1, 0, 0));
+        assertNull(index.find(-21, 64, 0));
+        assertNull(index.find(0, 64, 21));
+    }
+
+    @Test
+    void chunkKeysKeepTheSignOfBothCoordinates() {
+        ProtectionRegion west = ProtectionRegion.column("west", -16, 0, -1, 15);
+        ProtectionRegion north = ProtectionRegion.column("north", 0, -16, 15, -1);
+        ProtectionRegion corner = ProtectionRegion.column("corner", -16, -16, -1, -1);
+        RegionIndex index = RegionIndex.build(List.of(west, north, corner));
+
+        assertArrayEquals(new ProtectionRegion[] {west}, index.candidates(-1, 0));
+        assertArrayEquals(new ProtectionRegion[] {north}, index.candidates(0, -1));
+        assertArrayEquals(new ProtectionRegion[] {corner}, index.candidates(-1, -1));
+        assertEquals(0, index.candidates(0, 0).length);
+        assertTrue(RegionIndex.chunkKey(-1, 0) != RegionIndex.chunkKey(0, -1));
+        assertTrue(RegionIndex.chunkKey(0, -1) != RegionIndex.chunkKey(-1, -1));
+    }
+
+    @Test
+    void regionsSharingAChunkAreAllCandidates() {
+        ProtectionRegion a = ProtectionRegion.column("a", 0, 0, 5, 5);
+        ProtectionRegion b = new ProtectionRegion("b", 10, 0, 10, 15, 20, 15);
+        ProtectionRegion c = ProtectionRegion.column("c", 3, 3, 40, 8);
+        RegionIndex index = RegionIndex.build(List.of(a, b, c));
+
+        assertArrayEquals(new ProtectionRegion[] {a, b, c}, index.candidates(0, 0));
+        assertArrayEquals(new ProtectionRegion[] {c}, index.candidates(2, 0));
+
+        // The first region in configuration order wins where regions overlap
+        assertSame(a, index.find(4, 0, 4));
+        assertSame(c, index.find(6, 0, 6));
+        assertSame(b, index.find(12, 10, 12));
+        assertNull(index.find(12, 30, 12));
+        assertSame(c, index.find(40, 0, 8));
+        assertNull(index.find(8, 0, 12));
+    }
+
+    @Test
+    void manyChunksAreIndexedWithoutLosingAnyRegion() {
+        ProtectionRegion[] regions = new ProtectionRegion[200];
+        for (int i = 0; i < regions.length; i++) {
+            int x = (i - 100) * 37;
+            int z = (100 - i) * 53;
+            regions[i] = ProtectionRegion.column("r" + i, x, z, x + 3, z + 3);
+        }
+        RegionIndex index = RegionIndex.build(List.of(regions));
+        for (int i = 0; i < regions.length; i++) {
+            int x = (i - 100) * 37;
+            int z = (100 - i) * 53;
+            assertSame(regions[i], index.find(x + 1, 0, z + 2));
+        }
+    }
+
+    @Test
+    void regionsAboveTheChunkLimitAreCheckedByTheirBounds() {
+        // 128 x 128 chunks is exactly the limit and still indexed per chunk
+        ProtectionRegion atLimit = ProtectionRegion.column("at-limit", 0, 0, 2047, 2047);
+        assertEquals(128 * 128, RegionIndex.MAX_INDEXED_CHUNKS);
+        // Anything larger is not
+        ProtectionRegion large = ProtectionRegion.column("large", -10000, -10000, 2048 * 4, 2047);
+        ProtectionRegion small = ProtectionRegion.column("small", 5000, 5000, 5010, 5010);
+        RegionIndex index = RegionIndex.build(List.of(atLimit, large, small));
+
+        assertArrayEquals(new ProtectionRegion[] {atLimit}, index.candidates(127, 127));
+        assertArrayEquals(new ProtectionRegion[] {small}, index.candidates(5000 >> 4, 5000 >> 4));
+        assertEquals(0, index.candidates(-100, -100).length);
+
+        assertSame(atLimit, index.find(100, 0, 100));
+        assertSame(large, index.find(-9000, 0, -9000));
+        assertSame(large, index.find(3000, 0, 0));
+        assertSame(small, index.find(5005, 0, 5005));
+        assertNull(index.find(-10001, 0, 0));
+        assertNull(index.find(3000, 0, 3000));
+    }
+
+    @Test
+    void emptyIndexRejectsEverything() {
+        RegionIndex index = RegionIndex.build(List.of());
+        assertSame(RegionIndex.EMPTY, index);
+        assertTrue(index.isEmpty());
+        assertFalse(index.mayIntersect(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertFalse(index.mayIntersect(0, 0, 0, 0));
+        assertEquals(0, index.candidates(0, 0).length);
+        assertNull(index.find(0, 0, 0));
+    }
+
+    @Test
+    void mayIntersectUsesTheCombinedBounds() {
+        RegionIndex index = RegionIndex.build(List.of(
+                ProtectionRegion.column("a", -50, -50, -40, -40),
+                ProtectionRegion.column("b", 40, 40, 50, 50)));
+        assertFalse(index.isEmpty());
+        assertTrue(index.mayIntersect(-55, -55, -50, -50));
+        assertTrue(index.mayIntersect(50, 50, 60, 60));
+        // Between the regions but inside the combined bounds: may intersect
+        assertTrue(index.mayIntersect(-5, -5, 5, 5));
+        assertFalse(index.mayIntersect(51, 0, 60, 10));
+        assertFalse(index.mayIntersect(-100, -100, -51, 100));
+    }
+}
@@ -0,0 +1,66 @@
+package org.vwtfafa.hitBorder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NumberFormatterTest {
+
+    private static String format(double value, int decimals) {
+        return NumberFormatter.appendFixed(new StringBuilder(), value, decimals).toString();
+    }
+
+    private static String jdk(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    @Test
+    void roundsHalfUpOnTheDecimalRepresentation() {
+        // The nearest doubles are slightly below or above these halves
+        assertEquals("1.01", format(1.005, 2));
+        assertEquals("2.35", format(2.345, 2));
+        assertEquals("2.68", format(2.675, 2));
+        assertEquals("0.4", format(0.35, 1));
+        assertEquals("0.2", format(0.15, 1));
+    }
+
+    @Test
+    void exactHalvesRoundAwayFromZero() {
+        assertEquals("12.3", format(12.25, 1));
+        assertEquals("-12.3", format(-12.25, 1));
+        assertEquals("3", format(2.5, 0));
+        assertEquals("-3", format(-2.5, 0));
+        assertEquals("0.13", format(0.125, 2));
+    }
+
+    @Test
+    void keepsTheSignOfNegativeValuesRoundingToZero() {
+        assertEquals("-0.0", format(-0.04, 1));
+        assertEquals("-0.0", format(-0.0, 1));
+        assertEquals("0.0", format(0.0, 1));
+    }
+
+    @Test
+    void padsFractionsAndHandlesSpecialValues() {
+        assertEquals("7.0005", format(7.0005, 4));
+        assertEquals("100.0", format(99.96, 1));
+        assertEquals("29999984.0", format(29999984, 1));
+        assertEquals(jdk(Double.NaN, 1), format(Double.NaN, 1));
+        assertEquals(jdk(1e20, 1), format(1e20, 1));
+    }
+
+    @Test
+    void matchesStringFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int decimals = random.nextInt(5);
+            double value = random.nextBoolean()
+                    ? (random.nextInt(2_000_000) - 1_000_000 + 0.5) / Math.pow(10, decimals + 1)
+                    : (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(9));
+            assertEquals(jdk(value, decimals), format(value, decimals));
+        }
+    }
+}